@@ -1,6 +1,9 @@
 package com.lakehouse.scheduler.config;
 
+import com.lakehouse.scheduler.service.RevokedTokenRegistry;
+import com.lakehouse.scheduler.service.TokenVersionRegistry;
 import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +11,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +20,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
@@ -24,6 +29,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Value("${jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -33,19 +47,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             logger.debug("JWT token parsed: {}", jwt != null ? "present" : "null");
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Optional<Claims> claims = jwt != null ? jwtUtils.parseVerifiedClaims(jwt) : Optional.empty();
+            if (claims.isPresent() && revokedTokenRegistry.isRevoked(claims.get().getId())) {
+                logger.debug("JWT token {} has been revoked", claims.get().getId());
+            } else if (claims.isPresent()) {
+                String username = claims.get().getSubject();
                 logger.debug("JWT token valid for user: {}", username);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                UserDetails userDetails = resolvePrincipal(claims.get());
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails,
+                                    null,
+                                    userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.debug("Authentication set for user: {}", username);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    logger.debug("Authentication set for user: {}", username);
+                } else {
+                    logger.debug("JWT token for user {} predates a change to the account", username);
+                }
             } else {
                 logger.debug("JWT token validation failed or token is null");
             }
@@ -56,6 +77,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            Optional<UserDetailsServiceImpl.UserPrincipal> principal = jwtUtils.getPrincipalFromClaims(claims);
+            if (principal.isPresent()) {
+                UserDetailsServiceImpl.UserPrincipal userPrincipal = principal.get();
+                return tokenVersionRegistry.isCurrent(userPrincipal.getId(), userPrincipal.getTokenVersion())
+                        ? userPrincipal : null;
+            }
+        }
+        // Older tokens without principal claims still resolve through the database
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,10 @@
+package com.lakehouse.scheduler.config;
+
+// Thrown when the password hashing executor is saturated; mapped to 503 so clients back off and retry
+public class PasswordHashingRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
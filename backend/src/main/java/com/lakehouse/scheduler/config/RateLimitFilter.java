@@ -0,0 +1,145 @@
+package com.lakehouse.scheduler.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-route token buckets for the endpoints that cost BCrypt time or disk space. Runs right after
+// AuthTokenFilter, so authenticated routes are limited per user and anonymous ones per client IP.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Rule> rules;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    // capacity is the burst size, refillPerMinute the sustained rate
+    public record Rule(String name, String method, String path, int capacity, double refillPerMinute) {
+        long nanosPerToken() {
+            return (long) (TimeUnit.MINUTES.toNanos(1) / refillPerMinute);
+        }
+    }
+
+    public RateLimitFilter(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        sweepIdleBuckets(now);
+
+        String key = rule.name() + ":" + clientKey(request);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(rule));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.warn("Rate limit {} exceeded by {}", rule.name(), key);
+
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", 429);
+        body.put("error", "Too Many Requests");
+        body.put("message", "Too many requests, retry in " + retryAfterSeconds + " seconds");
+        body.put("path", request.getServletPath());
+        mapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (Rule rule : rules) {
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && rule.path().equals(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsServiceImpl.UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // A bucket that has refilled completely carries no state worth keeping. The sweep runs at most
+    // once a minute, on whichever request gets there first.
+    private void sweepIdleBuckets(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Token bucket kept as a single "theoretical arrival time" (GCRA): each request pushes it one token
+    // interval further, and a request is allowed while that stays within capacity intervals of now.
+    // Updated with compare-and-set only, so concurrent requests never block each other.
+    static final class Bucket {
+        private final long nanosPerToken;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(Rule rule) {
+            this.nanosPerToken = rule.nanosPerToken();
+            this.burstNanos = nanosPerToken * rule.capacity();
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        // Returns 0 when allowed, otherwise how long until a token is available
+        long tryAcquire(long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = Math.max(arrival, now) + nanosPerToken;
+                long ahead = next - now;
+                if (ahead > burstNanos) {
+                    return ahead - burstNanos;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return theoreticalArrival.get() - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lakehouse.scheduler.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Small LRU of tokens whose signature has already been checked. Entries are keyed by a SHA-256 of the
+// token, so raw bearer tokens are never kept in memory, and are dropped once the token expires.
+class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAtMillis) {}
+
+    private final Map<String, Entry> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    Claims get(String token) {
+        String digest = digest(token);
+        synchronized (entries) {
+            Entry entry = entries.get(digest);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= entry.expiresAtMillis()) {
+                entries.remove(digest);
+                return null;
+            }
+            return entry.claims();
+        }
+    }
+
+    void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return;
+        }
+        String digest = digest(token);
+        synchronized (entries) {
+            entries.put(digest, new Entry(claims, expiration.getTime()));
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -12,7 +12,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -20,6 +19,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
@@ -33,6 +33,40 @@ public class WebSecurityConfig {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // 0 means half the available cores
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing-queue-capacity:32}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.hashing-timeout-ms:5000}")
+    private long hashingTimeoutMs;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${rate-limit.signin.capacity:10}")
+    private int signinCapacity;
+
+    @Value("${rate-limit.signin.refill-per-minute:10}")
+    private double signinPerMinute;
+
+    @Value("${rate-limit.signup.capacity:3}")
+    private int signupCapacity;
+
+    @Value("${rate-limit.signup.refill-per-minute:1}")
+    private double signupPerMinute;
+
+    @Value("${rate-limit.upload.capacity:20}")
+    private int uploadCapacity;
+
+    @Value("${rate-limit.upload.refill-per-minute:10}")
+    private double uploadPerMinute;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -51,9 +85,22 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt runs on its own bounded pool rather than on request threads, see BoundedPasswordEncoder
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                hashingQueueCapacity, hashingTimeoutMs);
+    }
+
+    // Not a @Bean, so the servlet container doesn't register it a second time outside the security chain
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(List.of(
+                new RateLimitFilter.Rule("signin", "POST", "/auth/signin", signinCapacity, signinPerMinute),
+                new RateLimitFilter.Rule("refresh", "POST", "/auth/refresh", signinCapacity, signinPerMinute),
+                new RateLimitFilter.Rule("signup", "POST", "/auth/signup", signupCapacity, signupPerMinute),
+                new RateLimitFilter.Rule("upload", "POST", "/documents/upload", uploadCapacity, uploadPerMinute),
+                new RateLimitFilter.Rule("upload-session", "POST", "/documents/uploads", uploadCapacity, uploadPerMinute)));
     }
 
     @SuppressWarnings("removal")
@@ -65,7 +112,10 @@ public class WebSecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
                 auth.requestMatchers("/auth/signin", "/auth/signup", "/auth/init-admin", "/auth/make-admin/**").permitAll()
+                    .requestMatchers("/auth/refresh", "/auth/logout").permitAll()
                     .requestMatchers("/h2-console/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
             );
 
@@ -74,6 +124,9 @@ public class WebSecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
+        }
 
         return http.build();
     }
@@ -84,6 +137,8 @@ public class WebSecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("Content-Disposition", "Content-Range", "Accept-Ranges", "ETag",
+                "X-Total-Count", "X-Next-Cursor", "Retry-After"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -4,11 +4,15 @@ import com.lakehouse.scheduler.config.JwtUtils;
 import com.lakehouse.scheduler.dto.JwtResponse;
 import com.lakehouse.scheduler.dto.LoginRequest;
 import com.lakehouse.scheduler.dto.SignupRequest;
+import com.lakehouse.scheduler.dto.TokenRefreshRequest;
 import com.lakehouse.scheduler.model.User;
 import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.RefreshTokenService;
+import com.lakehouse.scheduler.service.RevokedTokenRegistry;
 import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,6 +42,12 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    RevokedTokenRegistry revokedTokenRegistry;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
 
@@ -53,8 +63,10 @@ public class AuthController {
         
         // Get user from database to get additional info
         User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+        String refreshToken = user != null ? refreshTokenService.issue(user) : null;
         
         return ResponseEntity.ok(new JwtResponse(jwt,
+                refreshToken,
                 userDetails.getId(),
                 userDetails.getUsername(),
                 userDetails.getEmail(),
@@ -63,6 +75,47 @@ public class AuthController {
                 userDetails.getAuthorities().iterator().next().getAuthority()));
     }
 
+    // Trades a refresh token for a new access token and a new refresh token; the old one is spent
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest refreshRequest) {
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        if (!rotation.isPresent()) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Refresh token is invalid or expired, please sign in again");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+
+        User user = rotation.get().user();
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = UserDetailsServiceImpl.UserPrincipal.create(user);
+        String jwt = jwtUtils.generateTokenForPrincipal(userPrincipal);
+
+        return ResponseEntity.ok(new JwtResponse(jwt,
+                rotation.get().refreshToken(),
+                userPrincipal.getId(),
+                userPrincipal.getUsername(),
+                userPrincipal.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                userPrincipal.getAuthorities().iterator().next().getAuthority()));
+    }
+
+    // Ends the sign-in: the presented access token stops working at once and its refresh token family is revoked
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) TokenRefreshRequest refreshRequest) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            jwtUtils.parseVerifiedClaims(authorization.substring(7))
+                    .ifPresent(claims -> revokedTokenRegistry.revoke(claims.getId(), claims.getExpiration()));
+        }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Signed out");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/signup")
     @Transactional
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
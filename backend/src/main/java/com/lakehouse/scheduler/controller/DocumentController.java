@@ -1,38 +1,73 @@
 package com.lakehouse.scheduler.controller;
 
 import com.lakehouse.scheduler.dto.DocumentDto;
+import com.lakehouse.scheduler.dto.DocumentVersion;
 import com.lakehouse.scheduler.model.Document;
 import com.lakehouse.scheduler.model.User;
 import com.lakehouse.scheduler.repository.DocumentRepository;
 import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.DocumentArchiveWriter;
+import com.lakehouse.scheduler.service.DocumentContentWriter;
+import com.lakehouse.scheduler.service.DocumentSearchIndex;
+import com.lakehouse.scheduler.service.DocumentStorageService;
+import com.lakehouse.scheduler.service.ThumbnailService;
+import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/documents")
 public class DocumentController {
 
+    // Listings may be cached but are revalidated on every use, which costs one aggregate query and a 304
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private DocumentRepository documentRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentContentWriter documentContentWriter;
+
+    @Autowired
+    private DocumentArchiveWriter documentArchiveWriter;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentSearchIndex documentSearchIndex;
+
     @PostMapping("/upload")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @Transactional
@@ -60,28 +95,8 @@ public class DocumentController {
             }
             User user = userOptional.get();
 
-            // Generate unique filename
-            String originalFileName = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFileName != null && originalFileName.contains(".")) {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            }
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-
-            // Create document entity
-            Document document = new Document(
-                uniqueFileName,
-                originalFileName,
-                file.getContentType(),
-                fileExtension,
-                file.getSize(),
-                file.getBytes(),
-                user,
-                description
-            );
-
-            // Save to database
-            Document savedDocument = documentRepository.save(document);
+            // Stream the content to the blob store and save the metadata row
+            Document savedDocument = documentStorageService.store(file, description, user);
 
             return ResponseEntity.ok(new DocumentDto(savedDocument));
 
@@ -94,58 +109,111 @@ public class DocumentController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentDto>> getAllDocuments() {
-        List<Document> documents = documentRepository.findAllByOrderByUploadedAtDesc();
-        List<DocumentDto> documentDtos = documents.stream()
-                .map(DocumentDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(documentDtos);
+    public ResponseEntity<List<DocumentDto>> getAllDocuments(WebRequest webRequest) {
+        String etag = documentRepository.findAllVersion().toEtag("all");
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .body(documentRepository.findAllSummaries());
     }
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentDto>> getMyDocuments(Authentication authentication) {
-        String username = authentication.getName();
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (!userOptional.isPresent()) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        List<Document> documents = documentRepository.findByUploadedByOrderByUploadedAtDesc(userOptional.get());
-        List<DocumentDto> documentDtos = documents.stream()
-                .map(DocumentDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(documentDtos);
+    public ResponseEntity<List<DocumentDto>> getMyDocuments(Authentication authentication, WebRequest webRequest) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        String etag = documentRepository.findVersionByUploaderId(userPrincipal.getId())
+                .toEtag("user" + userPrincipal.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .body(documentRepository.findSummariesByUploaderId(userPrincipal.getId()));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<DocumentDto> getDocument(@PathVariable Long id) {
-        Optional<Document> documentOptional = documentRepository.findById(id);
-        if (!documentOptional.isPresent()) {
+    public ResponseEntity<DocumentDto> getDocument(@PathVariable Long id, WebRequest webRequest) {
+        DocumentVersion version = documentRepository.findVersionById(id);
+        if (version.getCount() == 0) {
             return ResponseEntity.notFound().build();
         }
-
-        return ResponseEntity.ok(new DocumentDto(documentOptional.get()));
+        String etag = version.toEtag("doc" + id);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return documentRepository.findSummaryById(id)
+                .map(document -> ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(document))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}/download")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<ByteArrayResource> downloadDocument(@PathVariable Long id) {
+    public void downloadDocument(@PathVariable Long id, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
         Optional<Document> documentOptional = documentRepository.findById(id);
         if (!documentOptional.isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Streams from disk with Range support, nothing is buffered on the heap
+        documentContentWriter.write(documentOptional.get(), request, response);
+    }
+
+    @GetMapping("/{id}/thumbnail")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable Long id) {
+        Optional<Document> documentOptional = documentRepository.findById(id);
+        if (!documentOptional.isPresent() || !thumbnailService.supports(documentOptional.get().getContentType())) {
             return ResponseEntity.notFound().build();
         }
 
         Document document = documentOptional.get();
-        ByteArrayResource resource = new ByteArrayResource(document.getData());
+        Optional<Path> thumbnail = thumbnailService.find(document.getBlobKey());
+        if (!thumbnail.isPresent()) {
+            // Not rendered yet (or dropped while the queue was full), so queue it and let the client retry
+            thumbnailService.request(document.getBlobKey(), document.getContentType());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        }
 
+        // Thumbnails are keyed by content hash and documents never change, so clients may keep them forever
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                       "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                .contentType(MediaType.parseMediaType(document.getContentType()))
-                .contentLength(document.getFileSize())
-                .body(resource);
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .eTag("\"" + document.getChecksum() + "-thumb\"")
+                .body(new FileSystemResource(thumbnail.get()));
+    }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public void downloadArchive(@RequestBody ArchiveRequest archiveRequest,
+                                HttpServletResponse response) throws IOException {
+        if (!archiveRequest.hasCriteria()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Specify document ids or a filter");
+            return;
+        }
+
+        List<Document> documents = documentRepository.findForArchive(archiveRequest.getIds(),
+                archiveRequest.getUploadedBy(), archiveRequest.getContentType(), archiveRequest.getFilename());
+        if (documents.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // No Content-Length: the ZIP is written entry by entry as each blob is read, never assembled up front
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("documents.zip")
+                .build()
+                .toString());
+        documentArchiveWriter.write(documents, response.getOutputStream());
     }
 
     @DeleteMapping("/{id}")
@@ -175,7 +243,7 @@ public class DocumentController {
                 return ResponseEntity.status(403).body("You can only delete your own documents");
             }
 
-            documentRepository.deleteById(id);
+            documentStorageService.delete(document);
             return ResponseEntity.ok().body("Document deleted successfully");
 
         } catch (Exception e) {
@@ -185,11 +253,94 @@ public class DocumentController {
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentDto>> searchDocuments(@RequestParam String filename) {
-        List<Document> documents = documentRepository.findByOriginalFileNameContaining(filename);
-        List<DocumentDto> documentDtos = documents.stream()
-                .map(DocumentDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(documentDtos);
+    public ResponseEntity<?> searchDocuments(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "filename", required = false) String filename,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        // filename is the parameter older clients send, it now goes through the same index
+        String queryText = q != null ? q : filename;
+        if (queryText == null || queryText.isBlank()) {
+            return ResponseEntity.badRequest().body("Search text is required");
+        }
+        // Every page re-collects the hits before it, so deep paging is capped
+        if (page < 0 || size < 1 || size > 100 || (long) page * size > 10_000) {
+            return ResponseEntity.badRequest().body("Page must be 0 or more, size between 1 and 100, "
+                    + "and at most 10000 results deep");
+        }
+
+        try {
+            DocumentSearchIndex.Hits hits = documentSearchIndex.search(queryText, page, size);
+            Map<Long, DocumentDto> summaries = new HashMap<>();
+            if (!hits.ids().isEmpty()) {
+                for (DocumentDto summary : documentRepository.findSummariesByIdIn(hits.ids())) {
+                    summaries.put(summary.getId(), summary);
+                }
+            }
+
+            // Keep the index's ranking; ids deleted since the last index refresh are simply skipped
+            List<DocumentDto> results = new ArrayList<>(hits.ids().size());
+            for (Long id : hits.ids()) {
+                DocumentDto summary = summaries.get(id);
+                if (summary != null) {
+                    results.add(summary);
+                }
+            }
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(hits.total()))
+                    .body(results);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Search failed: " + e.getMessage());
+        }
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .build();
+    }
+
+    public static class ArchiveRequest {
+        private List<Long> ids;
+        private Long uploadedBy;
+        private String contentType;
+        private String filename;
+
+        public boolean hasCriteria() {
+            return (ids != null && !ids.isEmpty()) || uploadedBy != null || contentType != null || filename != null;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public Long getUploadedBy() {
+            return uploadedBy;
+        }
+
+        public void setUploadedBy(Long uploadedBy) {
+            this.uploadedBy = uploadedBy;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public void setFilename(String filename) {
+            this.filename = filename;
+        }
     }
 }
@@ -0,0 +1,190 @@
+package com.lakehouse.scheduler.controller;
+
+import com.lakehouse.scheduler.dto.DocumentDto;
+import com.lakehouse.scheduler.dto.UploadSessionDto;
+import com.lakehouse.scheduler.model.Document;
+import com.lakehouse.scheduler.model.UploadSession;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.UploadSessionRepository;
+import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.ChunkedUploadService;
+import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/documents/uploads")
+public class DocumentUploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> createSession(@RequestBody UploadSessionRequest request, Authentication authentication) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        Optional<User> userOptional = userRepository.findById(userPrincipal.getId());
+        if (!userOptional.isPresent()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+
+        try {
+            UploadSession session = chunkedUploadService.createSession(request.getFileName(), request.getContentType(),
+                    request.getDescription(), request.getTotalSize(), request.getChunkSize(), request.getChecksum(),
+                    userOptional.get());
+            return ResponseEntity.status(HttpStatus.CREATED).body(new UploadSessionDto(session, List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Failed to create upload session: " + e.getMessage());
+        }
+    }
+
+    // Lets a reconnecting client find out which chunks still need to be sent
+    @GetMapping("/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getSession(@PathVariable String sessionId, Authentication authentication) {
+        Optional<UploadSession> sessionOptional = findOwnSession(sessionId, authentication);
+        if (!sessionOptional.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        UploadSession session = sessionOptional.get();
+        return ResponseEntity.ok(new UploadSessionDto(session, chunkedUploadService.receivedChunks(session)));
+    }
+
+    @PutMapping("/{sessionId}/chunks/{index}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> uploadChunk(@PathVariable String sessionId, @PathVariable int index,
+                                         @RequestHeader(value = "X-Chunk-Checksum", required = false) String checksum,
+                                         HttpServletRequest request, Authentication authentication) {
+        Optional<UploadSession> sessionOptional = findOwnSession(sessionId, authentication);
+        if (!sessionOptional.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            long size = chunkedUploadService.receiveChunk(sessionOptional.get(), index, request.getInputStream(), checksum);
+            Map<String, Object> response = new HashMap<>();
+            response.put("index", index);
+            response.put("size", size);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Failed to upload chunk: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> completeUpload(@PathVariable String sessionId, Authentication authentication) {
+        Optional<UploadSession> sessionOptional = findOwnSession(sessionId, authentication);
+        if (!sessionOptional.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            UploadSession session = sessionOptional.get();
+            Document document = chunkedUploadService.complete(session, session.getUser());
+            return ResponseEntity.ok(new DocumentDto(document));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Failed to complete upload: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> abortUpload(@PathVariable String sessionId, Authentication authentication) {
+        Optional<UploadSession> sessionOptional = findOwnSession(sessionId, authentication);
+        if (!sessionOptional.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        chunkedUploadService.abort(sessionOptional.get());
+        return ResponseEntity.ok().body("Upload cancelled");
+    }
+
+    private Optional<UploadSession> findOwnSession(String sessionId, Authentication authentication) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        return uploadSessionRepository.findById(sessionId)
+                .filter(session -> session.getUser().getId().equals(userPrincipal.getId()));
+    }
+
+    public static class UploadSessionRequest {
+        private String fileName;
+        private String contentType;
+        private String description;
+        private Long totalSize;
+        private Long chunkSize;
+        private String checksum;
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public Long getTotalSize() {
+            return totalSize;
+        }
+
+        public void setTotalSize(Long totalSize) {
+            this.totalSize = totalSize;
+        }
+
+        public Long getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Long chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        public void setChecksum(String checksum) {
+            this.checksum = checksum;
+        }
+    }
+}
@@ -2,31 +2,45 @@ package com.lakehouse.scheduler.controller;
 
 import com.lakehouse.scheduler.dto.DutyAssignmentDto;
 import com.lakehouse.scheduler.dto.DutyDto;
+import com.lakehouse.scheduler.dto.KeysetCursor;
 import com.lakehouse.scheduler.model.Duty;
 import com.lakehouse.scheduler.model.DutyAssignment;
 import com.lakehouse.scheduler.model.User;
 import com.lakehouse.scheduler.repository.DutyAssignmentRepository;
 import com.lakehouse.scheduler.repository.DutyRepository;
 import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.DutyAssignmentBatchWriter;
+import com.lakehouse.scheduler.service.DutyRotaService;
 import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/duties")
 public class DutyController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_ROTA_DAYS = 366;
+    private static final int MAX_BULK_ASSIGNMENTS = 1000;
 
 
     @Autowired
@@ -38,6 +52,12 @@ public class DutyController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DutyRotaService dutyRotaService;
+
+    @Autowired
+    private DutyAssignmentBatchWriter batchWriter;
+
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<DutyDto>> getAllDuties() {
@@ -50,12 +70,43 @@ public class DutyController {
 
     @GetMapping("/assignments")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<DutyAssignmentDto>> getAllAssignments() {
-        List<DutyAssignment> assignments = dutyAssignmentRepository.findAll();
+    public ResponseEntity<?> getAllAssignments(@RequestParam(required = false) DutyAssignment.Status status,
+                                               @RequestParam(required = false) Long userId,
+                                               @RequestParam(required = false) Long dutyId,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        Map<String, String> response = new HashMap<>();
+
+        KeysetCursor after;
+        try {
+            after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            response.put("message", "limit must be between 1 and " + MAX_PAGE_SIZE);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        // One row past the page tells whether there is a next one
+        List<DutyAssignment> assignments = dutyAssignmentRepository.findPage(status, userId, dutyId, from, to, after, limit + 1);
+        boolean hasMore = assignments.size() > limit;
+        if (hasMore) {
+            assignments = assignments.subList(0, limit);
+        }
         List<DutyAssignmentDto> assignmentDtos = assignments.stream()
                 .map(DutyAssignmentDto::new)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(assignmentDtos);
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (hasMore) {
+            DutyAssignment last = assignments.get(assignments.size() - 1);
+            ok.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getAssignedDate(), last.getId()).encode());
+        }
+        return ok.body(assignmentDtos);
     }
 
     @GetMapping("/assignments/my")
@@ -69,6 +120,17 @@ public class DutyController {
         return ResponseEntity.ok(assignmentDtos);
     }
 
+    // Served from the flag column kept current by OverdueAssignmentTracker
+    @GetMapping("/overdue")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<DutyAssignmentDto>> getOverdueAssignments() {
+        List<DutyAssignment> assignments = dutyAssignmentRepository.findByOverdueTrueOrderByAssignedDateAscIdAsc();
+        List<DutyAssignmentDto> assignmentDtos = assignments.stream()
+                .map(DutyAssignmentDto::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(assignmentDtos);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
@@ -109,6 +171,90 @@ public class DutyController {
         return ResponseEntity.ok(response);
     }
 
+    // Validates every referenced user and duty with one query each, then inserts all assignments as
+    // JDBC batches in a single transaction; nothing is saved if any reference is unknown
+    @PostMapping("/assignments/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Transactional
+    public ResponseEntity<?> bulkAssign(@Valid @RequestBody BulkAssignmentRequest request) {
+        Map<String, Object> response = new HashMap<>();
+
+        List<BulkAssignmentItem> items = request.getAssignments();
+        if (items == null || items.isEmpty()) {
+            response.put("message", "No assignments given");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (items.size() > MAX_BULK_ASSIGNMENTS) {
+            response.put("message", "At most " + MAX_BULK_ASSIGNMENTS + " assignments per request");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> dutyIds = new HashSet<>();
+        for (BulkAssignmentItem item : items) {
+            if (item.getAssignedUserId() == null || item.getDutyId() == null || item.getAssignedDate() == null) {
+                response.put("message", "Each assignment needs dutyId, assignedUserId and assignedDate");
+                return ResponseEntity.badRequest().body(response);
+            }
+            userIds.add(item.getAssignedUserId());
+            dutyIds.add(item.getDutyId());
+        }
+
+        Set<Long> missingUsers = new TreeSet<>(userIds);
+        missingUsers.removeAll(userRepository.findExistingIds(userIds));
+        Set<Long> missingDuties = new TreeSet<>(dutyIds);
+        missingDuties.removeAll(dutyRepository.findExistingIds(dutyIds));
+        if (!missingUsers.isEmpty() || !missingDuties.isEmpty()) {
+            response.put("message", "Unknown users or duties");
+            response.put("missingUserIds", missingUsers);
+            response.put("missingDutyIds", missingDuties);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<DutyAssignmentBatchWriter.NewAssignment> rows = items.stream()
+                .map(item -> new DutyAssignmentBatchWriter.NewAssignment(item.getAssignedUserId(), item.getDutyId(),
+                        item.getAssignedDate(), item.getNotes()))
+                .collect(Collectors.toList());
+        int created = batchWriter.insert(rows);
+
+        response.put("message", "Duties assigned successfully!");
+        response.put("created", created);
+        return ResponseEntity.ok(response);
+    }
+
+    // Starts generating a rota in the background; poll the returned job for the outcome
+    @PostMapping("/rota")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> generateRota(@Valid @RequestBody RotaRequest request) {
+        Map<String, String> response = new HashMap<>();
+
+        if (request.getStartDate() == null || request.getEndDate() == null
+                || request.getEndDate().isBefore(request.getStartDate())) {
+            response.put("message", "End date must not be before start date");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= MAX_ROTA_DAYS) {
+            response.put("message", "A rota can span at most " + MAX_ROTA_DAYS + " days");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            DutyRotaService.RotaJob job = dutyRotaService.start(request.getStartDate(), request.getEndDate());
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalStateException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    @GetMapping("/rota/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRotaJob(@PathVariable String jobId) {
+        return dutyRotaService.find(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/assignments/{id}/complete")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @Transactional
@@ -181,6 +327,51 @@ public class DutyController {
         }
     }
 
+    public static class BulkAssignmentRequest {
+        private List<BulkAssignmentItem> assignments;
+
+        public List<BulkAssignmentItem> getAssignments() {
+            return assignments;
+        }
+
+        public void setAssignments(List<BulkAssignmentItem> assignments) {
+            this.assignments = assignments;
+        }
+    }
+
+    public static class BulkAssignmentItem extends AssignmentRequest {
+        private Long dutyId;
+
+        public Long getDutyId() {
+            return dutyId;
+        }
+
+        public void setDutyId(Long dutyId) {
+            this.dutyId = dutyId;
+        }
+    }
+
+    public static class RotaRequest {
+        private LocalDate startDate;
+        private LocalDate endDate;
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+    }
+
     public static class AssignmentRequest {
         private LocalDate assignedDate;
         private String notes;
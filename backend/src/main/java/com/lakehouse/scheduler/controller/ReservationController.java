@@ -1,19 +1,32 @@
 package com.lakehouse.scheduler.controller;
 
+import com.lakehouse.scheduler.dto.KeysetCursor;
 import com.lakehouse.scheduler.dto.ReservationDto;
+import com.lakehouse.scheduler.model.RecurringReservation;
 import com.lakehouse.scheduler.model.Reservation;
 import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.RecurringReservationRepository;
 import com.lakehouse.scheduler.repository.ReservationRepository;
 import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.RecurringReservationCalendar;
+import com.lakehouse.scheduler.service.ReservationConflictException;
+import com.lakehouse.scheduler.service.ReservationIndex;
+import com.lakehouse.scheduler.service.ReservationService;
 import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,20 +37,101 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/reservations")
 public class ReservationController {
+    private static final int MAX_AVAILABILITY_DAYS = 731;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ReservationRepository reservationRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private RecurringReservationRepository recurringReservationRepository;
+
+    @Autowired
+    private RecurringReservationCalendar recurringCalendar;
+
+    // How far ahead recurring reservations are listed
+    @Value("${reservations.recurring.list-horizon-days:365}")
+    private int listHorizonDays;
+
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ReservationDto>> getAllReservations() {
-        List<Reservation> reservations = reservationRepository.findCurrentAndFutureReservations(LocalDate.now());
+    public ResponseEntity<?> getAllReservations(@RequestParam(required = false) Reservation.Status status,
+                                                @RequestParam(required = false) Long userId,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        Map<String, String> response = new HashMap<>();
+
+        KeysetCursor after;
+        try {
+            after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            response.put("message", "limit must be between 1 and " + MAX_PAGE_SIZE);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        // Current and future reservations unless a window is given
+        LocalDate windowStart = from != null ? from : LocalDate.now();
+        List<Reservation> reservations = reservationRepository.findPage(status, userId, windowStart, to, after, limit + 1);
+        boolean hasMore = reservations.size() > limit;
+        if (hasMore) {
+            reservations = reservations.subList(0, limit);
+        }
         List<ReservationDto> reservationDtos = reservations.stream()
                 .map(ReservationDto::new)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(reservationDtos);
+
+        // Recurring occurrences have no id to page by, so each page takes the ones starting within the
+        // dates its rows cover; the last page runs on to the end of the window
+        if (status == null || status == Reservation.Status.CONFIRMED) {
+            LocalDate windowEnd = to != null ? to : windowStart.plusDays(listHorizonDays);
+            LocalDate pageEnd = hasMore ? reservations.get(reservations.size() - 1).getStartDate() : windowEnd;
+            List<RecurringReservation> series = userId != null
+                    ? recurringReservationRepository.findByUserIdWithUser(userId)
+                    : recurringReservationRepository.findAllWithUser();
+            addOccurrences(reservationDtos, series, windowStart, after != null ? after.getDate() : null, pageEnd);
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (hasMore) {
+            Reservation last = reservations.get(reservations.size() - 1);
+            ok.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getStartDate(), last.getId()).encode());
+        }
+        return ok.body(reservationDtos);
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getAvailability(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Range must run forwards and span at most " + MAX_AVAILABILITY_DAYS + " days");
+            return ResponseEntity.badRequest().body(response);
+        }
+        BitSet recurring = new BitSet();
+        for (RecurringReservationCalendar.Occurrence occurrence : recurringCalendar.occurrences(from, to)) {
+            long first = Math.max(0, ChronoUnit.DAYS.between(from, occurrence.startDate()));
+            long last = Math.min(ChronoUnit.DAYS.between(from, to), ChronoUnit.DAYS.between(from, occurrence.endDate()));
+            recurring.set((int) first, (int) last + 1);
+        }
+        return ResponseEntity.ok(reservationIndex.availability(from, to, recurring));
     }
 
     @GetMapping("/my")
@@ -48,6 +142,9 @@ public class ReservationController {
         List<ReservationDto> reservationDtos = reservations.stream()
                 .map(ReservationDto::new)
                 .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        addOccurrences(reservationDtos, recurringReservationRepository.findByUserIdWithUser(userPrincipal.getId()),
+                today, null, today.plusDays(listHorizonDays));
         return ResponseEntity.ok(reservationDtos);
     }
 
@@ -64,15 +161,18 @@ public class ReservationController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        // Check for overlapping reservations
-        List<Reservation> overlapping = reservationRepository.findOverlappingReservations(request.getStartDate(), request.getEndDate());
-        if (!overlapping.isEmpty()) {
-            response.put("message", "Dates conflict with existing reservation");
+        if (request.getStartDate() == null || request.getEndDate() == null
+                || request.getEndDate().isBefore(request.getStartDate())) {
+            response.put("message", "End date must not be before start date");
             return ResponseEntity.badRequest().body(response);
         }
 
-        Reservation reservation = new Reservation(request.getStartDate(), request.getEndDate(), request.getNotes(), userOpt.get());
-        reservationRepository.save(reservation);
+        try {
+            reservationService.create(request.getStartDate(), request.getEndDate(), request.getNotes(), userOpt.get());
+        } catch (ReservationConflictException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
 
         response.put("message", "Reservation created successfully!");
         return ResponseEntity.ok(response);
@@ -107,6 +207,191 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/recurring")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> createRecurringReservation(@Valid @RequestBody RecurringReservationRequest request, Authentication authentication) {
+        Map<String, String> response = new HashMap<>();
+
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        Optional<User> userOpt = userRepository.findById(userPrincipal.getId());
+
+        if (!userOpt.isPresent()) {
+            response.put("message", "User not found");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        if (request.getStartDate() == null || request.getEndDate() == null
+                || request.getEndDate().isBefore(request.getStartDate())) {
+            response.put("message", "End date must not be before start date");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            reservationService.createRecurring(request.getStartDate(), request.getEndDate(), request.getRule(),
+                    request.getNotes(), userOpt.get());
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (ReservationConflictException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        response.put("message", "Recurring reservation created successfully!");
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/recurring/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> deleteRecurringReservation(@PathVariable Long id, Authentication authentication) {
+        Map<String, String> response = new HashMap<>();
+
+        ResponseEntity<?> denied = checkRecurringAccess(id, authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        reservationService.deleteRecurring(id);
+        response.put("message", "Recurring reservation deleted successfully!");
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/recurring/{id}/occurrences/{date}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> cancelOccurrence(@PathVariable Long id,
+                                              @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                              Authentication authentication) {
+        Map<String, String> response = new HashMap<>();
+
+        ResponseEntity<?> denied = checkRecurringAccess(id, authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        try {
+            reservationService.cancelOccurrence(id, date);
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("message", "Occurrence cancelled successfully!");
+        return ResponseEntity.ok(response);
+    }
+
+    // Moving an occurrence or changing its notes turns it into an ordinary reservation
+    @PutMapping("/recurring/{id}/occurrences/{date}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> editOccurrence(@PathVariable Long id,
+                                            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                            @Valid @RequestBody ReservationRequest request,
+                                            Authentication authentication) {
+        Map<String, String> response = new HashMap<>();
+
+        ResponseEntity<?> denied = checkRecurringAccess(id, authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        if (request.getStartDate() == null || request.getEndDate() == null
+                || request.getEndDate().isBefore(request.getStartDate())) {
+            response.put("message", "End date must not be before start date");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            reservationService.editOccurrence(id, date, request.getStartDate(), request.getEndDate(), request.getNotes());
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (ReservationConflictException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        response.put("message", "Occurrence updated successfully!");
+        return ResponseEntity.ok(response);
+    }
+
+    // Returns the error response, or null when the caller owns the series or is an admin
+    private ResponseEntity<?> checkRecurringAccess(Long id, Authentication authentication) {
+        Map<String, String> response = new HashMap<>();
+
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        Optional<RecurringReservation> seriesOpt = recurringReservationRepository.findById(id);
+
+        if (!seriesOpt.isPresent()) {
+            response.put("message", "Recurring reservation not found");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        boolean isAdmin = userPrincipal.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!seriesOpt.get().getUser().getId().equals(userPrincipal.getId()) && !isAdmin) {
+            response.put("message", "Not authorized to change this reservation");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return null;
+    }
+
+    // Recurring reservations are expanded for the listed window only, then merged in date order.
+    // Occurrences overlapping from..until are kept, except those starting on or before startingAfter.
+    private void addOccurrences(List<ReservationDto> reservationDtos, List<RecurringReservation> series,
+                                LocalDate from, LocalDate startingAfter, LocalDate until) {
+        if (series.isEmpty() || until.isBefore(from)) {
+            return;
+        }
+        Map<Long, RecurringReservation> seriesById = series.stream()
+                .collect(Collectors.toMap(RecurringReservation::getId, s -> s));
+        for (RecurringReservationCalendar.Occurrence occurrence : recurringCalendar.occurrences(from, until)) {
+            RecurringReservation owner = seriesById.get(occurrence.seriesId());
+            if (owner != null && (startingAfter == null || occurrence.startDate().isAfter(startingAfter))) {
+                reservationDtos.add(new ReservationDto(owner, occurrence.startDate(), occurrence.endDate()));
+            }
+        }
+        reservationDtos.sort(Comparator.comparing(ReservationDto::getStartDate));
+    }
+
+    public static class RecurringReservationRequest {
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private String rule;
+        private String notes;
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public void setRule(String rule) {
+            this.rule = rule;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+    }
+
     public static class ReservationRequest {
         private LocalDate startDate;
         private LocalDate endDate;
@@ -1,5 +1,6 @@
 package com.lakehouse.scheduler.controller;
 
+import com.lakehouse.scheduler.config.PasswordHashingRejectedException;
 import com.lakehouse.scheduler.dto.UserDto;
 import com.lakehouse.scheduler.model.User;
 import com.lakehouse.scheduler.repository.UserRepository;
@@ -104,6 +105,8 @@ public class UserController {
 
             User savedUser = userRepository.save(user);
             return ResponseEntity.ok(new UserDto(savedUser));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating user: " + e.getMessage());
         }
@@ -176,6 +179,8 @@ public class UserController {
 
             User updatedUser = userRepository.save(user);
             return ResponseEntity.ok(new UserDto(updatedUser));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating user: " + e.getMessage());
         }
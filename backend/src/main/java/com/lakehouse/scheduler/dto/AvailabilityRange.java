@@ -0,0 +1,28 @@
+package com.lakehouse.scheduler.dto;
+
+import java.time.LocalDate;
+
+// A run of consecutive days that are all free or all booked, both ends inclusive
+public class AvailabilityRange {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final boolean booked;
+
+    public AvailabilityRange(LocalDate startDate, LocalDate endDate, boolean booked) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.booked = booked;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public boolean isBooked() {
+        return booked;
+    }
+}
@@ -31,6 +31,23 @@ public class DocumentDto {
         this.description = document.getDescription();
     }
 
+    // Used by the repository's constructor-expression queries, which read only metadata columns
+    public DocumentDto(Long id, String fileName, String originalFileName, String contentType,
+                       String fileExtension, Long fileSize, LocalDateTime uploadedAt,
+                       String uploadedByUsername, String uploadedByFirstName, String uploadedByLastName,
+                       String description) {
+        this.id = id;
+        this.fileName = fileName;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+        this.fileSize = fileSize;
+        this.uploadedAt = uploadedAt;
+        this.uploadedByUsername = uploadedByUsername;
+        this.uploadedByName = uploadedByFirstName + " " + uploadedByLastName;
+        this.description = description;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,27 @@
+package com.lakehouse.scheduler.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Aggregate that changes whenever a document listing would: documents are immutable once uploaded,
+// so only inserts, deletes and edits to an uploader's name can alter what the list shows
+public class DocumentVersion {
+    private final long count;
+    private final Long maxId;
+    private final LocalDateTime lastUploaderUpdate;
+
+    public DocumentVersion(Long count, Long maxId, LocalDateTime lastUploaderUpdate) {
+        this.count = count != null ? count : 0;
+        this.maxId = maxId;
+        this.lastUploaderUpdate = lastUploaderUpdate;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public String toEtag(String scope) {
+        long updated = lastUploaderUpdate != null ? lastUploaderUpdate.toEpochSecond(ZoneOffset.UTC) : 0;
+        return "\"" + scope + "-" + count + "-" + (maxId != null ? maxId : 0) + "-" + Long.toHexString(updated) + "\"";
+    }
+}
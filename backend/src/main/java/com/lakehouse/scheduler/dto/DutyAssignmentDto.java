@@ -10,6 +10,7 @@ public class DutyAssignmentDto {
     private LocalDate completedDate;
     private DutyAssignment.Status status;
     private String notes;
+    private Boolean overdue;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private UserDto user;
@@ -23,6 +24,7 @@ public class DutyAssignmentDto {
         this.completedDate = assignment.getCompletedDate();
         this.status = assignment.getStatus();
         this.notes = assignment.getNotes();
+        this.overdue = assignment.getOverdue();
         this.createdAt = assignment.getCreatedAt();
         this.updatedAt = assignment.getUpdatedAt();
         
@@ -107,4 +109,12 @@ public class DutyAssignmentDto {
     public void setDuty(DutyDto duty) {
         this.duty = duty;
     }
+
+    public Boolean getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(Boolean overdue) {
+        this.overdue = overdue;
+    }
 }
@@ -9,6 +9,7 @@ public class JwtResponse {
     private String firstName;
     private String lastName;
     private String role;
+    private String refreshToken;
 
     public JwtResponse(String accessToken, Long id, String username, String email, 
                       String firstName, String lastName, String role) {
@@ -21,6 +22,12 @@ public class JwtResponse {
         this.role = role;
     }
 
+    public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email,
+                      String firstName, String lastName, String role) {
+        this(accessToken, id, username, email, firstName, lastName, role);
+        this.refreshToken = refreshToken;
+    }
+
     public String getAccessToken() {
         return token;
     }
@@ -84,4 +91,12 @@ public class JwtResponse {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
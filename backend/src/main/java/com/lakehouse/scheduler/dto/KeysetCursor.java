@@ -0,0 +1,42 @@
+package com.lakehouse.scheduler.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position after the last row of a page, for lists ordered by (date, id). Clients get it back in the
+// X-Next-Cursor header and pass it as ?cursor= unchanged, so the format can change without breaking them.
+public class KeysetCursor {
+    private final LocalDate date;
+    private final Long id;
+
+    public KeysetCursor(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static KeysetCursor decode(String value) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = text.indexOf('/');
+            return new KeysetCursor(LocalDate.parse(text.substring(0, separator)),
+                    Long.valueOf(text.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -1,5 +1,6 @@
 package com.lakehouse.scheduler.dto;
 
+import com.lakehouse.scheduler.model.RecurringReservation;
 import com.lakehouse.scheduler.model.Reservation;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,6 +14,8 @@ public class ReservationDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private UserDto user;
+    private Long recurrenceId;
+    private LocalDate occurrenceDate;
 
     public ReservationDto() {}
 
@@ -29,6 +32,23 @@ public class ReservationDto {
         if (reservation.getUser() != null) {
             this.user = new UserDto(reservation.getUser());
         }
+        if (reservation.getRecurrence() != null) {
+            this.recurrenceId = reservation.getRecurrence().getId();
+            this.occurrenceDate = reservation.getOccurrenceDate();
+        }
+    }
+
+    // An occurrence of a recurring reservation that has no row of its own; it has no id until edited
+    public ReservationDto(RecurringReservation series, LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.notes = series.getNotes();
+        this.status = Reservation.Status.CONFIRMED;
+        this.createdAt = series.getCreatedAt();
+        this.updatedAt = series.getUpdatedAt();
+        this.user = new UserDto(series.getUser());
+        this.recurrenceId = series.getId();
+        this.occurrenceDate = startDate;
     }
 
     // Getters and Setters
@@ -95,4 +115,20 @@ public class ReservationDto {
     public void setUser(UserDto user) {
         this.user = user;
     }
+
+    public Long getRecurrenceId() {
+        return recurrenceId;
+    }
+
+    public void setRecurrenceId(Long recurrenceId) {
+        this.recurrenceId = recurrenceId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
 }
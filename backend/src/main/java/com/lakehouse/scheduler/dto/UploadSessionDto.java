@@ -0,0 +1,104 @@
+package com.lakehouse.scheduler.dto;
+
+import com.lakehouse.scheduler.model.UploadSession;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UploadSessionDto {
+    private String id;
+    private String originalFileName;
+    private String contentType;
+    private Long totalSize;
+    private Long chunkSize;
+    private Integer totalChunks;
+    private List<Integer> receivedChunks;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public UploadSessionDto() {}
+
+    public UploadSessionDto(UploadSession session, List<Integer> receivedChunks) {
+        this.id = session.getId();
+        this.originalFileName = session.getOriginalFileName();
+        this.contentType = session.getContentType();
+        this.totalSize = session.getTotalSize();
+        this.chunkSize = session.getChunkSize();
+        this.totalChunks = session.getTotalChunks();
+        this.receivedChunks = receivedChunks;
+        this.createdAt = session.getCreatedAt();
+        this.updatedAt = session.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(Long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public Long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Integer getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(Integer totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public List<Integer> getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(List<Integer> receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -26,9 +26,11 @@ public class Document {
     @Column(nullable = false)
     private Long fileSize;
 
-    @Lob
-   @Column(nullable = false)
-   private byte[] data;
+    @Column(name = "blob_key")
+    private String blobKey;
+
+    @Column(length = 64)
+    private String checksum;
 
     @Column(nullable = false)
     private LocalDateTime uploadedAt;
@@ -45,14 +47,15 @@ public class Document {
     }
 
     public Document(String fileName, String originalFileName, String contentType, 
-                   String fileExtension, Long fileSize, byte[] data, User uploadedBy, String description) {
+                   String fileExtension, Long fileSize, String blobKey, String checksum, User uploadedBy, String description) {
         this();
         this.fileName = fileName;
         this.originalFileName = originalFileName;
         this.contentType = contentType;
         this.fileExtension = fileExtension;
         this.fileSize = fileSize;
-        this.data = data;
+        this.blobKey = blobKey;
+        this.checksum = checksum;
         this.uploadedBy = uploadedBy;
         this.description = description;
     }
@@ -106,12 +109,20 @@ public class Document {
         this.fileSize = fileSize;
     }
 
-    public byte[] getData() {
-        return data;
+    public String getBlobKey() {
+        return blobKey;
+    }
+
+    public void setBlobKey(String blobKey) {
+        this.blobKey = blobKey;
+    }
+
+    public String getChecksum() {
+        return checksum;
     }
 
-    public void setData(byte[] data) {
-        this.data = data;
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
     }
 
     public LocalDateTime getUploadedAt() {
@@ -2,11 +2,19 @@ package com.lakehouse.scheduler.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "duty_assignments")
+@Table(name = "duty_assignments", indexes = {
+    @Index(name = "idx_duty_assignments_date_id", columnList = "assigned_date, id"),
+    @Index(name = "idx_duty_assignments_user_date", columnList = "user_id, assigned_date, id"),
+    @Index(name = "idx_duty_assignments_duty_date", columnList = "duty_id, assigned_date, id"),
+    @Index(name = "idx_duty_assignments_status_date", columnList = "status, assigned_date, id"),
+    @Index(name = "idx_duty_assignments_overdue", columnList = "overdue, assigned_date"),
+    @Index(name = "idx_duty_assignments_updated_at", columnList = "updated_at")
+})
 public class DutyAssignment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +34,11 @@ public class DutyAssignment {
     @Column(length = 500)
     private String notes;
 
+    // Maintained by OverdueAssignmentTracker so the overdue list is an index lookup
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private Boolean overdue = false;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -57,6 +70,10 @@ public class DutyAssignment {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        // Completed or cancelled work stops being overdue straight away; the tracker handles the rest
+        if (status != Status.ASSIGNED) {
+            overdue = false;
+        }
     }
 
     // Getters and Setters
@@ -132,6 +149,14 @@ public class DutyAssignment {
         this.duty = duty;
     }
 
+    public Boolean getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(Boolean overdue) {
+        this.overdue = overdue;
+    }
+
     public enum Status {
         ASSIGNED, IN_PROGRESS, COMPLETED, CANCELLED
     }
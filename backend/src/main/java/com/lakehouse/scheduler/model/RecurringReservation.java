@@ -0,0 +1,146 @@
+package com.lakehouse.scheduler.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// A booking that repeats, stored once as its first occurrence plus a recurrence rule. Occurrences are
+// worked out when a date window is read; one becomes a Reservation row only when it is edited, and
+// its date is then added to excludedDates so the rule no longer produces it.
+@Entity
+@Table(name = "recurring_reservations")
+public class RecurringReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First occurrence; later ones keep the same length
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    // RRULE subset, e.g. FREQ=MONTHLY;INTERVAL=1;COUNT=12
+    @Column(nullable = false, length = 200)
+    private String rule;
+
+    @Column(length = 500)
+    private String notes;
+
+    // Start dates of occurrences that were cancelled or materialized
+    @ElementCollection
+    @CollectionTable(name = "recurring_reservation_exclusions", joinColumns = @JoinColumn(name = "recurring_reservation_id"))
+    @Column(name = "occurrence_date", nullable = false)
+    private Set<LocalDate> excludedDates = new HashSet<>();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public RecurringReservation() {}
+
+    public RecurringReservation(LocalDate startDate, LocalDate endDate, String rule, String notes, User user) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.rule = rule;
+        this.notes = notes;
+        this.user = user;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public Set<LocalDate> getExcludedDates() {
+        return excludedDates;
+    }
+
+    public void setExcludedDates(Set<LocalDate> excludedDates) {
+        this.excludedDates = excludedDates;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
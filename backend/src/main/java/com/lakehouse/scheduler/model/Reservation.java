@@ -2,11 +2,17 @@ package com.lakehouse.scheduler.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+    @Index(name = "idx_reservations_start_id", columnList = "start_date, id"),
+    @Index(name = "idx_reservations_user_start", columnList = "user_id, start_date, id")
+})
+@EntityListeners(ReservationChangeListener.class)
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +43,16 @@ public class Reservation {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Set when this row is an edited occurrence of a recurring reservation
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recurring_reservation_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private RecurringReservation recurrence;
+
+    // The start date the rule gave this occurrence before it was edited
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     public Reservation() {}
 
     public Reservation(LocalDate startDate, LocalDate endDate, String notes, User user) {
@@ -122,6 +138,22 @@ public class Reservation {
         this.user = user;
     }
 
+    public RecurringReservation getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(RecurringReservation recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
     public enum Status {
         PENDING, CONFIRMED, CANCELLED
     }
@@ -0,0 +1,27 @@
+package com.lakehouse.scheduler.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so injection works here
+public class ReservationChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Reservation reservation) {
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getId(), reservation.getStartDate(),
+                reservation.getEndDate(), reservation.getStatus(), false));
+    }
+
+    @PostRemove
+    public void onRemoved(Reservation reservation) {
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getId(), reservation.getStartDate(),
+                reservation.getEndDate(), reservation.getStatus(), true));
+    }
+}
@@ -0,0 +1,13 @@
+package com.lakehouse.scheduler.model;
+
+import java.time.LocalDate;
+
+// Published when a reservation row is inserted, updated or deleted, including deletes cascaded from
+// its user; the availability index applies it after the transaction commits
+public record ReservationChangedEvent(Long reservationId, LocalDate startDate, LocalDate endDate,
+                                      Reservation.Status status, boolean deleted) {
+
+    public boolean blocksDates() {
+        return !deleted && status != Reservation.Status.CANCELLED;
+    }
+}
@@ -6,10 +6,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,6 +44,10 @@ public class User {
     @Column(length = 20)
     private Role role = Role.USER;
 
+    // Bumped whenever the username, password or role changes; tokens carrying an older value are refused
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -89,6 +95,9 @@ public class User {
     }
 
     public void setUsername(String username) {
+        if (!Objects.equals(this.username, username)) {
+            bumpTokenVersion();
+        }
         this.username = username;
     }
 
@@ -121,6 +130,9 @@ public class User {
     }
 
     public void setPassword(String password) {
+        if (!Objects.equals(this.password, password)) {
+            bumpTokenVersion();
+        }
         this.password = password;
     }
 
@@ -129,9 +141,21 @@ public class User {
     }
 
     public void setRole(Role role) {
+        if (this.role != role) {
+            bumpTokenVersion();
+        }
         this.role = role;
     }
 
+    // Rows created before the column existed have no value yet
+    public int getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
+    private void bumpTokenVersion() {
+        tokenVersion = getTokenVersion() + 1;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,5 @@
+package com.lakehouse.scheduler.model;
+
+// Published when a user row is inserted, updated or deleted; listeners that keep per-user state
+// in memory handle it after the transaction commits
+public record UserChangedEvent(Long userId, String username, int tokenVersion, boolean deleted) {}
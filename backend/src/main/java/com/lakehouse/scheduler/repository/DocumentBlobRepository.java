@@ -0,0 +1,28 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.model.DocumentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, String> {
+
+    // Takes a reference, creating the row for new content; the row lock is held until commit
+    @Modifying
+    @Query(value = "INSERT INTO document_blobs (content_hash, size, stored_size, ref_count, created_at) "
+            + "VALUES (:hash, :size, :storedSize, 1, now()) "
+            + "ON CONFLICT (content_hash) DO UPDATE SET ref_count = document_blobs.ref_count + 1",
+            nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size, @Param("storedSize") long storedSize);
+
+    @Modifying
+    @Query(value = "UPDATE document_blobs SET ref_count = ref_count - 1 WHERE content_hash = :hash", nativeQuery = true)
+    int release(@Param("hash") String hash);
+
+    @Modifying
+    @Query(value = "DELETE FROM document_blobs WHERE content_hash = :hash AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -1,7 +1,8 @@
 package com.lakehouse.scheduler.repository;
 
+import com.lakehouse.scheduler.dto.DocumentDto;
+import com.lakehouse.scheduler.dto.DocumentVersion;
 import com.lakehouse.scheduler.model.Document;
-import com.lakehouse.scheduler.model.User;
 
 import jakarta.transaction.Transactional;
 
@@ -10,18 +11,45 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 @Transactional
-public interface DocumentRepository extends JpaRepository<Document, Long> {
-    
-    List<Document> findByUploadedByOrderByUploadedAtDesc(User uploadedBy);
-    
-    List<Document> findAllByOrderByUploadedAtDesc();
-    
-    @Query("SELECT d FROM Document d WHERE d.originalFileName LIKE %:filename%")
-    List<Document> findByOriginalFileNameContaining(@Param("filename") String filename);
+public interface DocumentRepository extends JpaRepository<Document, Long>, DocumentRepositoryCustom {
+
+    // Metadata-only projection with the uploader joined in, so listings never touch document content
+    String SUMMARY_SELECT = "SELECT new com.lakehouse.scheduler.dto.DocumentDto("
+            + "d.id, d.fileName, d.originalFileName, d.contentType, d.fileExtension, d.fileSize, d.uploadedAt, "
+            + "u.username, u.firstName, u.lastName, d.description) "
+            + "FROM Document d JOIN d.uploadedBy u ";
+
+    // Cheap aggregates behind the listing ETags, so a revalidation never builds the list itself
+    String VERSION_SELECT = "SELECT new com.lakehouse.scheduler.dto.DocumentVersion(COUNT(d), MAX(d.id), MAX(u.updatedAt)) "
+            + "FROM Document d JOIN d.uploadedBy u ";
+
+    @Query(VERSION_SELECT)
+    DocumentVersion findAllVersion();
+
+    @Query(VERSION_SELECT + "WHERE u.id = :userId")
+    DocumentVersion findVersionByUploaderId(@Param("userId") Long userId);
+
+    @Query(VERSION_SELECT + "WHERE d.id = :id")
+    DocumentVersion findVersionById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "ORDER BY d.uploadedAt DESC")
+    List<DocumentDto> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY d.uploadedAt DESC")
+    List<DocumentDto> findSummariesByUploaderId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE d.id = :id")
+    Optional<DocumentDto> findSummaryById(@Param("id") Long id);
+
+    // Search hits come back from the index as ids; the caller restores the ranking order
+    @Query(SUMMARY_SELECT + "WHERE d.id IN :ids")
+    List<DocumentDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT d FROM Document d WHERE d.contentType = :contentType")
     List<Document> findByContentType(@Param("contentType") String contentType);
@@ -0,0 +1,9 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.model.Document;
+import java.util.Collection;
+import java.util.List;
+
+public interface DocumentRepositoryCustom {
+    List<Document> findForArchive(Collection<Long> ids, Long uploaderId, String contentType, String filename);
+}
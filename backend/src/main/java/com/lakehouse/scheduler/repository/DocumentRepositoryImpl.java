@@ -0,0 +1,59 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.model.Document;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Only the criteria that were given end up in the query, the uploader is never loaded
+    @Override
+    public List<Document> findForArchive(Collection<Long> ids, Long uploaderId, String contentType, String filename) {
+        StringBuilder jpql = new StringBuilder("SELECT d FROM Document d WHERE 1 = 1");
+        if (ids != null && !ids.isEmpty()) {
+            jpql.append(" AND d.id IN :ids");
+        }
+        if (uploaderId != null) {
+            jpql.append(" AND d.uploadedBy.id = :uploaderId");
+        }
+        if (contentType != null) {
+            jpql.append(" AND d.contentType = :contentType");
+        }
+        if (filename != null) {
+            // A substring match, served by the trigram index from V2__document_file_name_trigram_index
+            jpql.append(" AND LOWER(d.originalFileName) LIKE LOWER(:filename) ESCAPE '\\'");
+        }
+        jpql.append(" ORDER BY d.uploadedAt DESC");
+
+        TypedQuery<Document> query = entityManager.createQuery(jpql.toString(), Document.class);
+        if (ids != null && !ids.isEmpty()) {
+            query.setParameter("ids", ids);
+        }
+        if (uploaderId != null) {
+            query.setParameter("uploaderId", uploaderId);
+        }
+        if (contentType != null) {
+            query.setParameter("contentType", contentType);
+        }
+        if (filename != null) {
+            query.setParameter("filename", "%" + escapeLike(filename) + "%");
+        }
+        return query.getResultList();
+    }
+
+    // The file name is matched literally, so wildcards typed by the user don't widen the match
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
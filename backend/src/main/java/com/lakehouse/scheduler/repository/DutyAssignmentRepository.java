@@ -1,16 +1,21 @@
 package com.lakehouse.scheduler.repository;
 
 import com.lakehouse.scheduler.model.DutyAssignment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface DutyAssignmentRepository extends JpaRepository<DutyAssignment, Long> {
+public interface DutyAssignmentRepository extends JpaRepository<DutyAssignment, Long>, DutyAssignmentRepositoryCustom {
+    // Mapped to DTOs with their user and duty, so both are fetched in the same query
+    @EntityGraph(attributePaths = {"user", "duty"})
     List<DutyAssignment> findByUserId(Long userId);
     List<DutyAssignment> findByDutyId(Long dutyId);
     List<DutyAssignment> findByStatus(DutyAssignment.Status status);
@@ -18,6 +23,35 @@ public interface DutyAssignmentRepository extends JpaRepository<DutyAssignment,
     @Query("SELECT da FROM DutyAssignment da WHERE da.assignedDate >= :startDate AND da.assignedDate <= :endDate")
     List<DutyAssignment> findAssignmentsBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    // user id, duty id, assignedDate, estimated hours of assignments within from..to
+    @Query("SELECT da.user.id, da.duty.id, da.assignedDate, da.duty.estimatedHours FROM DutyAssignment da"
+            + " WHERE da.assignedDate >= :from AND da.assignedDate <= :to AND da.status <> :excluded")
+    List<Object[]> findWorkloadBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("excluded") DutyAssignment.Status excluded);
+
+    @EntityGraph(attributePaths = {"user", "duty"})
+    List<DutyAssignment> findByOverdueTrueOrderByAssignedDateAscIdAsc();
+
+    // Flags assignments that passed the cutoff since the previous one, plus any edited since changedSince
+    @Modifying
+    @Query("UPDATE DutyAssignment da SET da.overdue = true WHERE da.overdue = false AND da.status = :status"
+            + " AND da.assignedDate < :cutoff AND (da.assignedDate >= :previousCutoff OR da.updatedAt >= :changedSince)")
+    int markOverdue(@Param("status") DutyAssignment.Status status, @Param("cutoff") LocalDate cutoff,
+                    @Param("previousCutoff") LocalDate previousCutoff, @Param("changedSince") LocalDateTime changedSince);
+
+    // Unflags assignments edited since changedSince that no longer qualify
+    @Modifying
+    @Query("UPDATE DutyAssignment da SET da.overdue = false WHERE da.overdue = true"
+            + " AND (da.status <> :status OR da.assignedDate >= :cutoff) AND da.updatedAt >= :changedSince")
+    int clearOverdue(@Param("status") DutyAssignment.Status status, @Param("cutoff") LocalDate cutoff,
+                     @Param("changedSince") LocalDateTime changedSince);
+
+    // Full reconciliation, run once at startup when there is no previous pass to start from
+    @Modifying
+    @Query("UPDATE DutyAssignment da SET da.overdue = (CASE WHEN da.status = :status AND da.assignedDate < :cutoff"
+            + " THEN true ELSE false END)")
+    int recomputeOverdue(@Param("status") DutyAssignment.Status status, @Param("cutoff") LocalDate cutoff);
+
     @Query("SELECT da FROM DutyAssignment da WHERE da.user.id = :userId AND da.status = :status")
     List<DutyAssignment> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") DutyAssignment.Status status);
 }
@@ -0,0 +1,11 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.dto.KeysetCursor;
+import com.lakehouse.scheduler.model.DutyAssignment;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DutyAssignmentRepositoryCustom {
+    List<DutyAssignment> findPage(DutyAssignment.Status status, Long userId, Long dutyId, LocalDate from, LocalDate to,
+                                  KeysetCursor after, int limit);
+}
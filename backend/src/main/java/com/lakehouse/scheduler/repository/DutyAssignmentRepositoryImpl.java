@@ -0,0 +1,69 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.dto.KeysetCursor;
+import com.lakehouse.scheduler.model.DutyAssignment;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class DutyAssignmentRepositoryImpl implements DutyAssignmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Ordered by (assignedDate, id) and continued from the cursor rather than an offset, so a page deep
+    // into the history costs the same as the first. Each filter has a matching index on DutyAssignment.
+    @Override
+    public List<DutyAssignment> findPage(DutyAssignment.Status status, Long userId, Long dutyId, LocalDate from, LocalDate to,
+                                         KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT da FROM DutyAssignment da JOIN FETCH da.user JOIN FETCH da.duty WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND da.status = :status");
+        }
+        if (userId != null) {
+            jpql.append(" AND da.user.id = :userId");
+        }
+        if (dutyId != null) {
+            jpql.append(" AND da.duty.id = :dutyId");
+        }
+        if (from != null) {
+            jpql.append(" AND da.assignedDate >= :from");
+        }
+        if (to != null) {
+            jpql.append(" AND da.assignedDate <= :to");
+        }
+        if (after != null) {
+            jpql.append(" AND (da.assignedDate > :afterDate OR (da.assignedDate = :afterDate AND da.id > :afterId))");
+        }
+        jpql.append(" ORDER BY da.assignedDate ASC, da.id ASC");
+
+        TypedQuery<DutyAssignment> query = entityManager.createQuery(jpql.toString(), DutyAssignment.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (dutyId != null) {
+            query.setParameter("dutyId", dutyId);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (after != null) {
+            query.setParameter("afterDate", after.getDate());
+            query.setParameter("afterId", after.getId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
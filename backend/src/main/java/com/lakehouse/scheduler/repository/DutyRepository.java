@@ -2,12 +2,18 @@ package com.lakehouse.scheduler.repository;
 
 import com.lakehouse.scheduler.model.Duty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DutyRepository extends JpaRepository<Duty, Long>, DutyRepositoryCustom {
     List<Duty> findByIsActiveTrue();
-    List<Duty> findByPriority(Duty.Priority priority);    
+    List<Duty> findByPriority(Duty.Priority priority);
+
+    @Query("SELECT d.id FROM Duty d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
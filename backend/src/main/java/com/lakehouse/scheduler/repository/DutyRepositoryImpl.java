@@ -9,7 +9,6 @@ import jakarta.persistence.TypedQuery;
 
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -34,19 +33,16 @@ public class DutyRepositoryImpl implements DutyRepositoryCustom {
         return query.getResultList();
     }
 
+    // Reads the overdue flag kept by OverdueAssignmentTracker instead of comparing dates per row
     @Override
     public List<Duty> findOverdueDuties() {
         String jpql = """
-            SELECT DISTINCT d FROM Duty d 
-            JOIN d.assignments da 
+            SELECT d FROM Duty d 
             WHERE d.isActive = true 
-            AND da.status = com.lakehouse.scheduler.model.DutyAssignment.Status.ASSIGNED 
-            AND da.assignedDate < :cutoffDate
-            ORDER BY da.assignedDate ASC
+            AND EXISTS (SELECT 1 FROM DutyAssignment da WHERE da.duty = d AND da.overdue = true)
+            ORDER BY d.priority DESC, d.name ASC
             """;
         TypedQuery<Duty> query = entityManager.createQuery(jpql, Duty.class);
-        // Consider duties overdue if assigned more than 7 days ago
-        query.setParameter("cutoffDate", LocalDateTime.now().minusDays(7));
         return query.getResultList();
     }
 
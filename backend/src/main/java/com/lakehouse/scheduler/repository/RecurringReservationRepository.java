@@ -0,0 +1,26 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.model.RecurringReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecurringReservationRepository extends JpaRepository<RecurringReservation, Long> {
+
+    // id and user id of every recurring reservation
+    @Query("SELECT s.id, s.user.id FROM RecurringReservation s")
+    List<Object[]> findOwners();
+
+    @Query("SELECT DISTINCT s FROM RecurringReservation s LEFT JOIN FETCH s.excludedDates")
+    List<RecurringReservation> findAllWithExcludedDates();
+
+    @Query("SELECT DISTINCT s FROM RecurringReservation s JOIN FETCH s.user")
+    List<RecurringReservation> findAllWithUser();
+
+    @Query("SELECT DISTINCT s FROM RecurringReservation s JOIN FETCH s.user WHERE s.user.id = :userId")
+    List<RecurringReservation> findByUserIdWithUser(@Param("userId") Long userId);
+}
@@ -1,6 +1,7 @@
 package com.lakehouse.scheduler.repository;
 
 import com.lakehouse.scheduler.model.Reservation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,13 +11,24 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationRepositoryCustom {
+    @EntityGraph(attributePaths = "user")
     List<Reservation> findByUserId(Long userId);
     
     @Query("SELECT r FROM Reservation r WHERE r.startDate <= :endDate AND r.endDate >= :startDate")
     List<Reservation> findOverlappingReservations(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT r FROM Reservation r WHERE r.endDate >= :currentDate ORDER BY r.startDate ASC")
+    // id, startDate, endDate of every reservation that still holds its dates
+    @Query("SELECT r.id, r.startDate, r.endDate FROM Reservation r WHERE r.status IS NULL OR r.status <> :excluded ORDER BY r.startDate, r.id")
+    List<Object[]> findIntervalsByStatusNot(@Param("excluded") Reservation.Status excluded);
+
+    // user id, startDate, endDate of reservations holding dates within from..to
+    @Query("SELECT r.user.id, r.startDate, r.endDate FROM Reservation r WHERE r.startDate <= :to AND r.endDate >= :from"
+            + " AND (r.status IS NULL OR r.status <> :excluded)")
+    List<Object[]> findStaysBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                    @Param("excluded") Reservation.Status excluded);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.user WHERE r.endDate >= :currentDate ORDER BY r.startDate ASC")
     List<Reservation> findCurrentAndFutureReservations(@Param("currentDate") LocalDate currentDate);
     
     @Query("SELECT r FROM Reservation r WHERE r.startDate >= :startDate AND r.endDate <= :endDate")
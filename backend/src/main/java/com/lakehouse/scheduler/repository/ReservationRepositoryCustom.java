@@ -0,0 +1,11 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.dto.KeysetCursor;
+import com.lakehouse.scheduler.model.Reservation;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReservationRepositoryCustom {
+    List<Reservation> findPage(Reservation.Status status, Long userId, LocalDate from, LocalDate to,
+                               KeysetCursor after, int limit);
+}
@@ -0,0 +1,62 @@
+package com.lakehouse.scheduler.repository;
+
+import com.lakehouse.scheduler.dto.KeysetCursor;
+import com.lakehouse.scheduler.model.Reservation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Keyset page ordered by (startDate, id); from..to keeps reservations that overlap the window
+    @Override
+    public List<Reservation> findPage(Reservation.Status status, Long userId, LocalDate from, LocalDate to,
+                                      KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT r FROM Reservation r JOIN FETCH r.user WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND r.status = :status");
+        }
+        if (userId != null) {
+            jpql.append(" AND r.user.id = :userId");
+        }
+        if (from != null) {
+            jpql.append(" AND r.endDate >= :from");
+        }
+        if (to != null) {
+            jpql.append(" AND r.startDate <= :to");
+        }
+        if (after != null) {
+            jpql.append(" AND (r.startDate > :afterDate OR (r.startDate = :afterDate AND r.id > :afterId))");
+        }
+        jpql.append(" ORDER BY r.startDate ASC, r.id ASC");
+
+        TypedQuery<Reservation> query = entityManager.createQuery(jpql.toString(), Reservation.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (after != null) {
+            query.setParameter("afterDate", after.getDate());
+            query.setParameter("afterId", after.getId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.lakehouse.scheduler.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+final class BlobPdf {
+
+    interface PdfAction<T> {
+        T apply(PDDocument document) throws IOException;
+    }
+
+    private BlobPdf() {}
+
+    // PDFBox needs random access, so compressed blobs are unpacked to a temp file first
+    // rather than being buffered on the heap
+    static <T> T withDocument(BlobStore blobStore, String blobKey, Path tempDir, PdfAction<T> action) throws IOException {
+        Optional<BlobStore.LocalBlob> local = blobStore.localFile(blobKey);
+        Path temp = null;
+        Path file;
+        if (local.isPresent() && local.get().encoding() == null) {
+            file = local.get().path();
+        } else {
+            temp = Files.createTempFile(tempDir, "pdf-", ".part");
+            try (InputStream content = blobStore.open(blobKey)) {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            file = temp;
+        }
+
+        try (PDDocument document = Loader.loadPDF(file.toFile())) {
+            return action.apply(document);
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
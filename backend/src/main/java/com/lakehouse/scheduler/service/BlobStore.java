@@ -0,0 +1,40 @@
+package com.lakehouse.scheduler.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface BlobStore {
+
+    String GZIP = "gzip";
+
+    // Streams the content into the store under its SHA-256; identical content is only kept once.
+    // Compressible content may be stored gzip-encoded, the key and checksum always describe the original bytes.
+    StoredBlob store(InputStream content, boolean compress) throws IOException;
+
+    // Always returns the original bytes, decompressing on the fly if needed
+    InputStream open(String key) throws IOException;
+
+    // Present when the blob is a plain file on local disk and can be sent with zero-copy I/O
+    Optional<LocalBlob> localFile(String key);
+
+    boolean exists(String key);
+
+    void delete(String key) throws IOException;
+
+    // Moves the blob out of sight so a delete can still be undone if its transaction rolls back
+    RetiredBlob retire(String key) throws IOException;
+
+    // created is false when identical content was already stored and this call left it untouched
+    record StoredBlob(String key, String checksum, long size, long storedSize, String encoding, boolean created) {}
+
+    // encoding is null when the file holds the original bytes, otherwise GZIP
+    record LocalBlob(Path path, String encoding) {}
+
+    interface RetiredBlob {
+        void purge() throws IOException;
+
+        void restore() throws IOException;
+    }
+}
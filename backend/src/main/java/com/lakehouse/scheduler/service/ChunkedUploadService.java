@@ -0,0 +1,221 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Document;
+import com.lakehouse.scheduler.model.UploadSession;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+// Assembles large documents from individually uploaded chunks kept on disk until the upload completes
+@Service
+public class ChunkedUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final long MIN_CHUNK_SIZE = 256 * 1024;
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Value("${storage.upload.max-file-size-mb}")
+    private long maxFileSizeMb;
+
+    @Value("${storage.upload.chunk-size-mb}")
+    private long defaultChunkSizeMb;
+
+    @Value("${storage.upload.session-ttl-hours}")
+    private long sessionTtlHours;
+
+    private final Path root;
+
+    public ChunkedUploadService(@Value("${storage.upload.root}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    @Transactional
+    public UploadSession createSession(String originalFileName, String contentType, String description,
+                                       Long totalSize, Long chunkSize, String checksum, User user) throws IOException {
+        if (originalFileName == null || originalFileName.isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (totalSize == null || totalSize <= 0) {
+            throw new IllegalArgumentException("Total size must be greater than zero");
+        }
+        if (totalSize > maxFileSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException("File size must be less than " + maxFileSizeMb + "MB");
+        }
+        long effectiveChunkSize = chunkSize != null ? chunkSize : defaultChunkSizeMb * 1024 * 1024;
+        if (effectiveChunkSize < MIN_CHUNK_SIZE || effectiveChunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), originalFileName, contentType,
+                description, totalSize, effectiveChunkSize, checksum, user);
+        Files.createDirectories(sessionDir(session));
+        return uploadSessionRepository.save(session);
+    }
+
+    // Chunks are written to a temp file and only renamed into place once size and checksum match,
+    // so a dropped connection never leaves a half-written chunk behind. Re-sending a chunk is harmless.
+    // Deliberately not transactional, a slow chunk must not hold a database connection.
+    public long receiveChunk(UploadSession session, int index, InputStream content, String expectedChecksum) throws IOException {
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.getTotalChunks() - 1));
+        }
+        if (expectedChecksum == null || expectedChecksum.isBlank()) {
+            throw new IllegalArgumentException("Chunk checksum is required");
+        }
+
+        long expectedSize = session.expectedChunkSize(index);
+        Path dir = sessionDir(session);
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "chunk-" + index + "-", ".tmp");
+        try {
+            MessageDigest digest = StreamCopy.sha256();
+            long size = StreamCopy.copy(content, temp, digest, expectedSize);
+            if (size != expectedSize) {
+                throw new IllegalArgumentException("Chunk " + index + " must be " + expectedSize + " bytes but was " + size);
+            }
+            String actualChecksum = HexFormat.of().formatHex(digest.digest());
+            if (!actualChecksum.equalsIgnoreCase(expectedChecksum.trim())) {
+                throw new IllegalArgumentException("Checksum mismatch for chunk " + index);
+            }
+            Files.move(temp, chunkPath(session, index), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        // Keeps an active session from expiring
+        session.setUpdatedAt(LocalDateTime.now());
+        uploadSessionRepository.save(session);
+        return expectedSize;
+    }
+
+    public List<Integer> receivedChunks(UploadSession session) {
+        List<Integer> received = new ArrayList<>();
+        for (int i = 0; i < session.getTotalChunks(); i++) {
+            if (Files.exists(chunkPath(session, i))) {
+                received.add(i);
+            }
+        }
+        return received;
+    }
+
+    @Transactional
+    public Document complete(UploadSession session, User user) throws IOException {
+        List<Path> chunks = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.getTotalChunks(); i++) {
+            Path chunk = chunkPath(session, i);
+            if (Files.exists(chunk)) {
+                chunks.add(chunk);
+            } else {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing chunks: " + missing);
+        }
+
+        Document document = documentStorageService.store(() -> concat(chunks), session.getOriginalFileName(),
+                session.getContentType(), session.getDescription(), user);
+        if (document.getFileSize().longValue() != session.getTotalSize()) {
+            throw new IllegalArgumentException("Assembled file is " + document.getFileSize() + " bytes, expected " + session.getTotalSize());
+        }
+        if (session.getChecksum() != null && !session.getChecksum().equalsIgnoreCase(document.getChecksum())) {
+            throw new IllegalArgumentException("Checksum mismatch for the assembled file");
+        }
+
+        uploadSessionRepository.delete(session);
+        deleteDirectoryAfterCommit(session);
+        return document;
+    }
+
+    @Transactional
+    public void abort(UploadSession session) {
+        uploadSessionRepository.delete(session);
+        deleteDirectoryAfterCommit(session);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.upload.cleanup-interval-ms}")
+    @Transactional
+    public void removeExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findByUpdatedAtBefore(LocalDateTime.now().minusHours(sessionTtlHours));
+        for (UploadSession session : expired) {
+            logger.info("Removing expired upload session {} for {}", session.getId(), session.getOriginalFileName());
+            abort(session);
+        }
+    }
+
+    // Opens chunk files one at a time as the previous one is exhausted
+    private InputStream concat(List<Path> chunks) {
+        Iterator<Path> iterator = chunks.iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(iterator.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private void deleteDirectoryAfterCommit(UploadSession session) {
+        Path dir = sessionDir(session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    FileSystemUtils.deleteRecursively(dir);
+                } catch (IOException e) {
+                    logger.warn("Could not delete upload directory {}: {}", dir, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private Path sessionDir(UploadSession session) {
+        return root.resolve(UUID.fromString(session.getId()).toString());
+    }
+
+    private Path chunkPath(UploadSession session, int index) {
+        return sessionDir(session).resolve(index + ".part");
+    }
+}
@@ -0,0 +1,88 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Streams several documents into one ZIP, reading each blob only as its entry is written
+@Component
+public class DocumentArchiveWriter {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentArchiveWriter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    public void write(List<Document> documents, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        Set<String> usedNames = new HashSet<>();
+
+        for (Document document : documents) {
+            // Deflating JPEGs, zips and OOXML files again costs CPU for nothing
+            zip.setLevel(DocumentStorageService.isCompressible(document.getContentType())
+                    ? Deflater.BEST_SPEED : Deflater.NO_COMPRESSION);
+
+            InputStream content;
+            try {
+                content = blobStore.open(document.getBlobKey());
+            } catch (NoSuchFileException e) {
+                // The response is already committed, so a blob deleted mid-export is left out rather than failing it
+                logger.warn("Skipping document {} in archive, its content is gone", document.getId());
+                continue;
+            }
+
+            try (content) {
+                ZipEntry entry = new ZipEntry(entryName(document, usedNames));
+                if (document.getUploadedAt() != null) {
+                    entry.setLastModifiedTime(FileTime.from(
+                            document.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant()));
+                }
+                zip.putNextEntry(entry);
+                content.transferTo(zip);
+                zip.closeEntry();
+            }
+        }
+
+        // finish() rather than close(), the container owns the response stream
+        zip.finish();
+        zip.flush();
+    }
+
+    // ZIP entries must be unique, so repeated file names get a " (n)" suffix like a browser download would
+    private String entryName(Document document, Set<String> usedNames) {
+        String name = document.getOriginalFileName();
+        if (name != null) {
+            name = name.replaceAll("[/\\\\]", "_").trim();
+        }
+        if (name == null || name.isEmpty() || name.equals(".") || name.equals("..")) {
+            name = "document-" + document.getId();
+        }
+
+        String candidate = name;
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int n = 2; !usedNames.add(candidate.toLowerCase(Locale.ROOT)); n++) {
+            candidate = base + " (" + n + ")" + extension;
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,92 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.repository.DocumentBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Moves document content out of the legacy documents.data column into the blob store,
+// dropping the column once every row has been migrated
+@Component
+public class DocumentBlobMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentBlobMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private DocumentBlobRepository documentBlobRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> dataType = jdbcTemplate.queryForList(
+            "SELECT data_type FROM information_schema.columns WHERE table_name = 'documents' AND column_name = 'data'",
+            String.class);
+        if (dataType.isEmpty()) {
+            return;
+        }
+        // Hibernate maps @Lob byte[] to a large object on PostgreSQL, the hand-written schema used bytea
+        boolean largeObject = "oid".equalsIgnoreCase(dataType.get(0));
+
+        jdbcTemplate.execute("ALTER TABLE documents ALTER COLUMN data DROP NOT NULL");
+
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT id FROM documents WHERE blob_key IS NULL AND data IS NOT NULL", Long.class);
+        logger.info("Migrating {} documents from the data column to the blob store", ids.size());
+
+        int failed = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> migrate(id, largeObject));
+            } catch (RuntimeException e) {
+                failed++;
+                logger.error("Failed to migrate document {}: {}", id, e.getMessage());
+            }
+        }
+
+        if (failed == 0) {
+            jdbcTemplate.execute("ALTER TABLE documents DROP COLUMN data");
+            logger.info("Document migration complete, dropped documents.data");
+        }
+    }
+
+    private void migrate(Long id, boolean largeObject) {
+        BlobStore.StoredBlob blob = jdbcTemplate.query("SELECT data, content_type FROM documents WHERE id = ?", rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            boolean compress = DocumentStorageService.isCompressible(rs.getString(2));
+            try (InputStream content = largeObject ? rs.getBlob(1).getBinaryStream() : rs.getBinaryStream(1)) {
+                return blobStore.store(content, compress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, id);
+        if (blob == null) {
+            return;
+        }
+
+        if (largeObject) {
+            jdbcTemplate.queryForList("SELECT lo_unlink(data) FROM documents WHERE id = ?", id);
+        }
+        documentBlobRepository.acquire(blob.checksum(), blob.size(), blob.storedSize());
+        jdbcTemplate.update("UPDATE documents SET blob_key = ?, checksum = ?, file_size = ?, data = NULL WHERE id = ?",
+            blob.key(), blob.checksum(), blob.size(), id);
+    }
+}
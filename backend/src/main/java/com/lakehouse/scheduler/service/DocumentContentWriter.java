@@ -0,0 +1,231 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Document;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Writes document content straight from the blob store to the response, honouring Range/If-Range
+@Component
+public class DocumentContentWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private BlobStore blobStore;
+
+    public void write(Document document, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = document.getFileSize();
+        String etag = document.getChecksum() != null ? "\"" + document.getChecksum() + "\"" : null;
+        long lastModified = document.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Content never changes under an id, but caches must still revalidate so deletes and
+        // permission changes take effect; revalidation costs a 304 and no body
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setContentType(document.getContentType() != null
+                ? document.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(document.getOriginalFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        Optional<BlobStore.LocalBlob> localBlob = blobStore.localFile(document.getBlobKey());
+        boolean storedCompressed = localBlob.isPresent() && BlobStore.GZIP.equals(localBlob.get().encoding());
+        if (storedCompressed) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        // The stored gzip bytes go out untouched when the client can decode them and wants the whole file
+        boolean passThrough = storedCompressed && rangeHeader == null && acceptsGzip(request);
+
+        // Each encoding is its own representation and needs its own strong validator
+        String representationEtag = etag != null && passThrough ? "\"" + document.getChecksum() + "-gzip\"" : etag;
+        if (representationEtag != null) {
+            response.setHeader(HttpHeaders.ETAG, representationEtag);
+        }
+
+        if (notModified(request, representationEtag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (passThrough) {
+            Path path = localBlob.get().path();
+            long storedLength = Files.size(path);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, BlobStore.GZIP);
+            response.setContentLengthLong(storedLength);
+            if (!"HEAD".equals(request.getMethod()) && storedLength > 0) {
+                sendFile(path, 0, storedLength - 1, request, response);
+            }
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            // Multipart byteranges are not worth supporting here, so anything but a single range gets the full file
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (localBlob.isPresent() && !storedCompressed) {
+            sendFile(localBlob.get().path(), start, end, request, response);
+            return;
+        }
+
+        // Compressed or remote content is decoded as it streams; a range start is reached by skipping
+        try (InputStream content = blobStore.open(document.getBlobKey())) {
+            StreamUtils.copyRange(content, response.getOutputStream(), start, end);
+        }
+    }
+
+    private void sendFile(Path path, long start, long end, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        // Let Tomcat hand the file region to the kernel after the servlet returns
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals(BlobStore.GZIP) && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            return !refused;
+        }
+        return false;
+    }
+
+    // If-None-Match wins over If-Modified-Since when both are sent; both only apply to GET and HEAD
+    private boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (etag == null) {
+                return false;
+            }
+            // Weak comparison, a W/ prefix on the client's copy still matches
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*")) {
+                    return true;
+                }
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        // If-Range needs a strong validator, weak ETags never match
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Document;
+import com.lakehouse.scheduler.repository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Embedded Lucene index over file names, descriptions and extracted text. Updates are applied by a single
+// background thread so uploads don't wait on text extraction, and searches read a near-real-time view.
+@Service
+public class DocumentSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String CONTENT = "content";
+
+    // A match in the file name counts for more than one in the description, which beats the body text
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(NAME, 3f, DESCRIPTION, 2f, CONTENT, 1f);
+
+    private static final int REBUILD_PAGE_SIZE = 200;
+
+    // File names are split on every non-alphanumeric character, on both the index and the query side,
+    // so "rota_2024-v2.pdf" is found by "rota", "2024" or the whole name
+    private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new StandardAnalyzer(),
+            Map.of(NAME, new FileNameAnalyzer()));
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    private DocumentTextExtractor textExtractor;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    public record Entry(Long id, String originalFileName, String description, String contentType, String blobKey) {
+        public static Entry of(Document document) {
+            return new Entry(document.getId(), document.getOriginalFileName(), document.getDescription(),
+                    document.getContentType(), document.getBlobKey());
+        }
+    }
+
+    public record Hits(List<Long> ids, long total) {}
+
+    public DocumentSearchIndex(@Value("${search.index.root}") String root) throws IOException {
+        Path indexPath = Paths.get(root).toAbsolutePath().normalize().resolve("index");
+        Files.createDirectories(indexPath);
+        this.directory = FSDirectory.open(indexPath);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+
+        // One thread keeps updates in order; if it falls far behind, the caller does the work itself
+        // rather than the index silently missing a document
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(10_000), runnable -> {
+                    Thread thread = new Thread(runnable, "search-index");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void index(Entry entry) {
+        executor.execute(() -> {
+            try {
+                writer.updateDocument(new Term(ID, entry.id().toString()), toLuceneDocument(entry));
+                publish();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not index document {}: {}", entry.id(), e.getMessage());
+            }
+        });
+    }
+
+    public void remove(Long documentId) {
+        executor.execute(() -> {
+            try {
+                writer.deleteDocuments(new Term(ID, documentId.toString()));
+                publish();
+            } catch (IOException e) {
+                logger.warn("Could not remove document {} from the index: {}", documentId, e.getMessage());
+            }
+        });
+    }
+
+    // Results are ranked by relevance; page is zero-based
+    public Hits search(String queryText, int page, int size) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int offset = page * size;
+            TopDocs topDocs = searcher.search(query, offset + size);
+            List<Long> ids = new ArrayList<>(size);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                ids.add(Long.valueOf(searcher.storedFields().document(scoreDocs[i].doc).get(ID)));
+            }
+            return new Hits(ids, topDocs.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // Catches up after the index directory was wiped or writes were lost in a crash
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        executor.execute(() -> {
+            try {
+                long indexed = writer.getDocStats().numDocs;
+                long stored = documentRepository.count();
+                if (indexed != stored) {
+                    logger.info("Search index has {} documents, database has {}; rebuilding", indexed, stored);
+                    rebuild();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not rebuild the search index: {}", e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void rebuild() throws IOException {
+        writer.deleteAll();
+        Page<Document> batch = documentRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            for (Document document : batch.getContent()) {
+                writer.addDocument(toLuceneDocument(Entry.of(document)));
+            }
+            if (!batch.hasNext()) {
+                break;
+            }
+            batch = documentRepository.findAll(batch.nextPageable());
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    // Commits once the queue drains, so a burst of uploads shares one fsync
+    private void publish() throws IOException {
+        searcherManager.maybeRefresh();
+        if (executor.getQueue().isEmpty()) {
+            writer.commit();
+        }
+    }
+
+    private org.apache.lucene.document.Document toLuceneDocument(Entry entry) {
+        org.apache.lucene.document.Document doc = new org.apache.lucene.document.Document();
+        doc.add(new StringField(ID, entry.id().toString(), Field.Store.YES));
+        if (entry.originalFileName() != null) {
+            doc.add(new TextField(NAME, entry.originalFileName(), Field.Store.NO));
+        }
+        if (entry.description() != null) {
+            doc.add(new TextField(DESCRIPTION, entry.description(), Field.Store.NO));
+        }
+
+        String text = "";
+        try {
+            text = textExtractor.extract(entry.blobKey(), entry.contentType());
+        } catch (IOException | RuntimeException e) {
+            // Still searchable by name and description
+            logger.warn("Could not extract text from document {}: {}", entry.id(), e.getMessage());
+        }
+        if (!text.isEmpty()) {
+            doc.add(new TextField(CONTENT, text, Field.Store.NO));
+        }
+        return doc;
+    }
+
+    private static final class FileNameAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+            return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new LowerCaseFilter(in);
+        }
+    }
+}
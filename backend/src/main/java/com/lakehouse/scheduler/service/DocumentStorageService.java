@@ -0,0 +1,243 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Document;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.DocumentBlobRepository;
+import com.lakehouse.scheduler.repository.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class DocumentStorageService {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentStorageService.class);
+
+    // Formats that are mostly text or uncompressed structure. Images, archives, media and the zipped
+    // Office Open XML formats (docx, xlsx, pptx) are already compressed and are stored as-is.
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+        "application/pdf",
+        "application/json",
+        "application/xml",
+        "application/rtf",
+        "application/msword",
+        "application/vnd.ms-excel",
+        "application/vnd.ms-powerpoint",
+        "application/vnd.oasis.opendocument.text",
+        "image/svg+xml",
+        "image/bmp",
+        "image/tiff"
+    );
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentBlobRepository documentBlobRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentSearchIndex searchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // The multipart body is already spooled to disk by the container, so this never buffers the whole file
+    @Transactional
+    public Document store(MultipartFile file, String description, User user) throws IOException {
+        return store(file, file.getOriginalFilename(), file.getContentType(), description, user);
+    }
+
+    // The source may be opened twice if identical content is reclaimed while this upload is in flight
+    @Transactional
+    public Document store(InputStreamSource source, String originalFileName, String contentType,
+                          String description, User user) throws IOException {
+        // Generate unique filename
+        String fileExtension = "";
+        if (originalFileName != null && originalFileName.contains(".")) {
+            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        }
+        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+
+        boolean compress = isCompressible(contentType);
+        BlobStore.StoredBlob blob = storeContent(source, compress);
+        deleteBlobOnRollback(blob);
+        documentBlobRepository.acquire(blob.checksum(), blob.size(), blob.storedSize());
+
+        // A delete may have reclaimed identical content between writing it and taking the reference
+        if (!blobStore.exists(blob.key())) {
+            blob = storeContent(source, compress);
+            deleteBlobOnRollback(blob);
+        }
+
+        Document document = new Document(
+            uniqueFileName,
+            originalFileName,
+            contentType,
+            fileExtension,
+            blob.size(),
+            blob.key(),
+            blob.checksum(),
+            user,
+            description
+        );
+        Document saved = documentRepository.save(document);
+
+        // Previews and the search index are updated off the request thread, and only once the upload is committed
+        DocumentSearchIndex.Entry indexEntry = DocumentSearchIndex.Entry.of(saved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                thumbnailService.request(indexEntry.blobKey(), contentType);
+                searchIndex.index(indexEntry);
+            }
+        });
+        return saved;
+    }
+
+    private BlobStore.StoredBlob storeContent(InputStreamSource source, boolean compress) throws IOException {
+        try (InputStream content = source.getInputStream()) {
+            return blobStore.store(content, compress);
+        }
+    }
+
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        return type.startsWith("text/") || COMPRESSIBLE_TYPES.contains(type);
+    }
+
+    public InputStream openContent(Document document) throws IOException {
+        return blobStore.open(document.getBlobKey());
+    }
+
+    @Transactional
+    public void delete(Document document) {
+        String blobKey = document.getBlobKey();
+        Long documentId = document.getId();
+        documentRepository.delete(document);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                searchIndex.remove(documentId);
+            }
+        });
+
+        if (documentBlobRepository.release(blobKey) == 0) {
+            // Not reference counted, so this document was its only user
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteBlobQuietly(blobKey);
+                }
+            });
+            return;
+        }
+
+        if (documentBlobRepository.deleteIfUnreferenced(blobKey) > 0) {
+            reclaimOnCommit(blobKey);
+        }
+    }
+
+    // The file is moved aside while this transaction still holds the blob row lock, so a concurrent
+    // upload of the same content either keeps the reference alive or notices the file is gone
+    private void reclaimOnCommit(String blobKey) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private BlobStore.RetiredBlob retired;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                try {
+                    retired = blobStore.retire(blobKey);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (retired == null) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        retired.purge();
+                        thumbnailService.delete(blobKey);
+                    } else {
+                        retired.restore();
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not finish reclaiming blob {}: {}", blobKey, e.getMessage());
+                }
+            }
+        });
+    }
+
+    // A file this upload wrote must not outlive a rollback, unless another upload of the same content has
+    // committed a reference to it in the meantime
+    private void deleteBlobOnRollback(BlobStore.StoredBlob blob) {
+        if (!blob.created()) {
+            return;
+        }
+        String blobKey = blob.key();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                TransactionTemplate cleanup = new TransactionTemplate(transactionManager);
+                cleanup.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                try {
+                    // Taking and dropping a reference locks the row, so a concurrent upload waits and then
+                    // finds the file gone instead of committing a reference to a deleted blob
+                    cleanup.executeWithoutResult(tx -> {
+                        documentBlobRepository.acquire(blob.checksum(), blob.size(), blob.storedSize());
+                        documentBlobRepository.release(blobKey);
+                        if (documentBlobRepository.deleteIfUnreferenced(blobKey) > 0) {
+                            deleteBlobQuietly(blobKey);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    logger.warn("Could not clean up blob {} after rollback: {}", blobKey, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void deleteBlobQuietly(String blobKey) {
+        thumbnailService.delete(blobKey);
+        try {
+            blobStore.delete(blobKey);
+        } catch (IOException e) {
+            logger.warn("Could not delete blob {}: {}", blobKey, e.getMessage());
+        }
+    }
+}
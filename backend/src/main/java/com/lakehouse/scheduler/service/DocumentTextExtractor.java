@@ -0,0 +1,145 @@
+package com.lakehouse.scheduler.service;
+
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Pulls plain text out of stored documents for the search index. Everything is read as a stream
+// and cut off at search.index.max-text-chars, so a huge upload can't blow up the heap.
+@Component
+public class DocumentTextExtractor {
+
+    private static final Set<String> PLAIN_TEXT_TYPES = Set.of("application/json", "application/xml");
+
+    // The parts of OOXML and ODF packages that hold the visible text
+    private static final Pattern TEXT_PARTS = Pattern.compile(
+            "word/(document|header\\d*|footer\\d*|footnotes|endnotes)\\.xml"
+                    + "|xl/sharedStrings\\.xml"
+                    + "|ppt/slides/slide\\d+\\.xml"
+                    + "|content\\.xml");
+
+    // Elements that end a run of text, so words in neighbouring paragraphs or cells don't merge
+    private static final Set<String> BREAK_ELEMENTS = Set.of("p", "h", "si", "tab", "br", "c", "tc");
+
+    private final XMLInputFactory xmlInputFactory;
+
+    // PDFs stored compressed are unpacked here while their text is read
+    private final Path tempDir;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${search.index.max-text-chars:1000000}")
+    private int maxChars;
+
+    @Value("${search.index.max-pdf-pages:200}")
+    private int maxPdfPages;
+
+    public DocumentTextExtractor(@Value("${search.index.root}") String indexRoot) throws IOException {
+        tempDir = Paths.get(indexRoot).toAbsolutePath().normalize().resolve("tmp");
+        Files.createDirectories(tempDir);
+
+        xmlInputFactory = XMLInputFactory.newFactory();
+        // Uploaded XML is untrusted, never resolve DTDs or external entities
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    // Returns an empty string for formats it can't read
+    public String extract(String blobKey, String contentType) throws IOException {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+
+        if (type.startsWith("text/") || PLAIN_TEXT_TYPES.contains(type)) {
+            return extractPlainText(blobKey);
+        }
+        if (type.equals("application/pdf")) {
+            return extractPdf(blobKey);
+        }
+        if (type.startsWith("application/vnd.openxmlformats-officedocument.")
+                || type.startsWith("application/vnd.oasis.opendocument.")) {
+            return extractOfficePackage(blobKey);
+        }
+        return "";
+    }
+
+    private String extractPlainText(String blobKey) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(blobStore.open(blobKey), StandardCharsets.UTF_8)) {
+            int read;
+            while (text.length() < maxChars && (read = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, Math.min(read, maxChars - text.length()));
+            }
+        }
+        return text.toString();
+    }
+
+    private String extractPdf(String blobKey) throws IOException {
+        return BlobPdf.withDocument(blobStore, blobKey, tempDir, document -> {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(maxPdfPages);
+            String text = stripper.getText(document);
+            return text.length() > maxChars ? text.substring(0, maxChars) : text;
+        });
+    }
+
+    // docx/xlsx/pptx and the OpenDocument formats are zip files of XML parts, read here with StAX
+    // straight off the zip stream instead of pulling in a full office library
+    private String extractOfficePackage(String blobKey) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (ZipInputStream zip = new ZipInputStream(blobStore.open(blobKey))) {
+            ZipEntry entry;
+            while (text.length() < maxChars && (entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory() && TEXT_PARTS.matcher(entry.getName()).matches()) {
+                    appendXmlText(zip, text);
+                }
+            }
+        }
+        return text.length() > maxChars ? text.substring(0, maxChars) : text.toString();
+    }
+
+    private void appendXmlText(InputStream xml, StringBuilder text) throws IOException {
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(xml);
+            try {
+                while (reader.hasNext() && text.length() < maxChars) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                        text.append(reader.getText());
+                    } else if (event == XMLStreamConstants.END_ELEMENT
+                            && BREAK_ELEMENTS.contains(reader.getLocalName())) {
+                        text.append(' ');
+                    }
+                }
+            } finally {
+                // Leaves the zip stream open for the next entry
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed document part: " + e.getMessage(), e);
+        }
+    }
+}
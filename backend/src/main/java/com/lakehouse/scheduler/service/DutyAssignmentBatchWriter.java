@@ -0,0 +1,42 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.DutyAssignment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Inserts many assignments as JDBC batches. Hibernate can't batch them itself: the IDENTITY ids make
+// it run each insert on its own to read the key back. Callers supply the transaction.
+@Component
+public class DutyAssignmentBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT = "INSERT INTO duty_assignments"
+            + " (assigned_date, status, notes, created_at, updated_at, user_id, duty_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record NewAssignment(long userId, long dutyId, LocalDate assignedDate, String notes) {}
+
+    public int insert(List<NewAssignment> assignments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, assignments, BATCH_SIZE, (statement, assignment) -> {
+            statement.setDate(1, Date.valueOf(assignment.assignedDate()));
+            statement.setString(2, DutyAssignment.Status.ASSIGNED.name());
+            statement.setString(3, assignment.notes());
+            statement.setTimestamp(4, now);
+            statement.setTimestamp(5, now);
+            statement.setLong(6, assignment.userId());
+            statement.setLong(7, assignment.dutyId());
+        });
+        return assignments.size();
+    }
+}
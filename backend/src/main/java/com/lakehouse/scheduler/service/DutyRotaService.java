@@ -0,0 +1,268 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.Duty;
+import com.lakehouse.scheduler.model.DutyAssignment;
+import com.lakehouse.scheduler.model.Reservation;
+import com.lakehouse.scheduler.repository.DutyAssignmentRepository;
+import com.lakehouse.scheduler.repository.DutyRepository;
+import com.lakehouse.scheduler.repository.RecurringReservationRepository;
+import com.lakehouse.scheduler.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Generates a duty rota for a date range in the background: every active duty recurs at a cadence set
+// by its priority, and each occurrence goes to someone staying at the house that day, balancing hours.
+@Service
+public class DutyRotaService {
+    private static final Logger logger = LoggerFactory.getLogger(DutyRotaService.class);
+
+    // Days between occurrences of a duty
+    private static final Map<Duty.Priority, Integer> CADENCE_DAYS = Map.of(
+            Duty.Priority.URGENT, 1, Duty.Priority.HIGH, 2, Duty.Priority.MEDIUM, 3, Duty.Priority.LOW, 7);
+
+    private static final String NOTES = "Generated rota";
+    private static final int RECENT_JOBS = 20;
+
+    private final ForkJoinPool solverPool;
+    private final DutyRotaSolver solver;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duty-rota");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One rota at a time; two running over the same dates would both fill the same slots
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Map<String, RotaJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RotaJob> eldest) {
+            return size() > RECENT_JOBS;
+        }
+    };
+
+    @Autowired
+    private DutyRepository dutyRepository;
+
+    @Autowired
+    private DutyAssignmentRepository dutyAssignmentRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RecurringReservationRepository recurringReservationRepository;
+
+    @Autowired
+    private RecurringReservationCalendar recurringCalendar;
+
+    @Autowired
+    private DutyAssignmentBatchWriter batchWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public enum JobStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    public static class RotaJob {
+        private final String id = UUID.randomUUID().toString();
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile int assignmentsCreated;
+        private volatile int slotsUnfilled;
+        private volatile String message;
+
+        RotaJob(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public int getAssignmentsCreated() {
+            return assignmentsCreated;
+        }
+
+        // Duty occurrences on days when nobody is staying at the house
+        public int getSlotsUnfilled() {
+            return slotsUnfilled;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public DutyRotaService(@Value("${duties.rota.parallelism:0}") int parallelism) {
+        this.solverPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.solver = new DutyRotaSolver(solverPool);
+    }
+
+    // Throws IllegalStateException when a rota is already being generated
+    public RotaJob start(LocalDate startDate, LocalDate endDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rota is already being generated");
+        }
+        RotaJob job = new RotaJob(startDate, endDate);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<RotaJob> find(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        solverPool.shutdownNow();
+    }
+
+    private void run(RotaJob job) {
+        try {
+            generate(job);
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            logger.error("Rota generation for {} to {} failed", job.startDate, job.endDate, e);
+            job.message = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private void generate(RotaJob job) {
+        LocalDate from = job.startDate;
+        LocalDate to = job.endDate;
+
+        // Hours people already have in the period count towards fairness, and slots that already have
+        // someone are not generated again, so re-running over the same dates only fills the gaps
+        Map<Long, Integer> startingHours = new HashMap<>();
+        Set<String> taken = new HashSet<>();
+        for (Object[] row : dutyAssignmentRepository.findWorkloadBetween(from, to, DutyAssignment.Status.CANCELLED)) {
+            startingHours.merge((Long) row[0], hoursOf((Integer) row[3]), Integer::sum);
+            taken.add(row[1] + "/" + row[2]);
+        }
+
+        List<DutyRotaSolver.Slot> slots = new ArrayList<>();
+        for (Duty duty : dutyRepository.findByIsActiveTrue()) {
+            Duty.Priority priority = duty.getPriority() != null ? duty.getPriority() : Duty.Priority.MEDIUM;
+            int cadence = CADENCE_DAYS.get(priority);
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(cadence)) {
+                if (!taken.contains(duty.getId() + "/" + date)) {
+                    slots.add(new DutyRotaSolver.Slot(duty.getId(), date, hoursOf(duty.getEstimatedHours()), priority.ordinal()));
+                }
+            }
+        }
+
+        List<DutyRotaSolver.Assignment> assignments = solver.solve(slots, presence(from, to), startingHours);
+
+        List<DutyAssignmentBatchWriter.NewAssignment> rows = new ArrayList<>(assignments.size());
+        for (DutyRotaSolver.Assignment assignment : assignments) {
+            rows.add(new DutyAssignmentBatchWriter.NewAssignment(assignment.userId(), assignment.slot().dutyId(),
+                    assignment.slot().date(), NOTES));
+        }
+        Integer created = transactionTemplate.execute(status -> batchWriter.insert(rows));
+
+        job.assignmentsCreated = created != null ? created : 0;
+        job.slotsUnfilled = slots.size() - assignments.size();
+        logger.info("Rota for {} to {}: {} assignments, {} slots without anyone present",
+                from, to, job.assignmentsCreated, job.slotsUnfilled);
+    }
+
+    // Who is staying at the house each day, from reservations and recurring reservations alike
+    private Map<LocalDate, List<Long>> presence(LocalDate from, LocalDate to) {
+        Map<LocalDate, Set<Long>> guests = new HashMap<>();
+        for (Object[] row : reservationRepository.findStaysBetween(from, to, Reservation.Status.CANCELLED)) {
+            addStay(guests, (Long) row[0], (LocalDate) row[1], (LocalDate) row[2], from, to);
+        }
+        Map<Long, Long> owners = new HashMap<>();
+        for (Object[] row : recurringReservationRepository.findOwners()) {
+            owners.put((Long) row[0], (Long) row[1]);
+        }
+        for (RecurringReservationCalendar.Occurrence occurrence : recurringCalendar.occurrences(from, to)) {
+            Long userId = owners.get(occurrence.seriesId());
+            if (userId != null) {
+                addStay(guests, userId, occurrence.startDate(), occurrence.endDate(), from, to);
+            }
+        }
+
+        Map<LocalDate, List<Long>> present = new HashMap<>();
+        guests.forEach((date, users) -> present.put(date, List.copyOf(new TreeSet<>(users))));
+        return present;
+    }
+
+    private static void addStay(Map<LocalDate, Set<Long>> guests, Long userId, LocalDate start, LocalDate end,
+                                LocalDate from, LocalDate to) {
+        LocalDate first = start.isBefore(from) ? from : start;
+        LocalDate last = end.isAfter(to) ? to : end;
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            guests.computeIfAbsent(date, day -> new HashSet<>()).add(userId);
+        }
+    }
+
+    // Duties without an estimate still cost something, or they would pile up on one person
+    private static int hoursOf(Integer estimatedHours) {
+        return estimatedHours != null && estimatedHours > 0 ? estimatedHours : 1;
+    }
+}
@@ -0,0 +1,170 @@
+package com.lakehouse.scheduler.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Assigns duty slots to the people at the house on each slot's day, keeping everyone's total hours as
+// even as possible. Weeks are solved independently on a fork/join pool, then a repair pass moves slots
+// between people to even out what the weeks couldn't see of each other.
+class DutyRotaSolver {
+
+    // priorityRank orders slots: more urgent ones are handed out first, while everyone's load is lowest
+    record Slot(long dutyId, LocalDate date, int hours, int priorityRank) {}
+
+    record Assignment(Slot slot, long userId) {}
+
+    private static final Comparator<Slot> HANDOUT_ORDER = Comparator.comparingInt(Slot::priorityRank).reversed()
+            .thenComparing(Comparator.comparingInt(Slot::hours).reversed())
+            .thenComparing(Slot::date)
+            .thenComparingLong(Slot::dutyId);
+
+    private final ForkJoinPool pool;
+
+    DutyRotaSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // present maps each day to the users at the house; startingHours are hours people already carry
+    // in the period. Slots on days nobody is present are left out of the result.
+    List<Assignment> solve(List<Slot> slots, Map<LocalDate, List<Long>> present, Map<Long, Integer> startingHours) {
+        Map<LocalDate, List<Slot>> byWeek = new TreeMap<>();
+        for (Slot slot : slots) {
+            byWeek.computeIfAbsent(slot.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    week -> new ArrayList<>()).add(slot);
+        }
+        List<List<Slot>> weeks = new ArrayList<>(byWeek.values());
+        if (weeks.isEmpty()) {
+            return List.of();
+        }
+
+        List<Assignment> assignments = pool.invoke(new WeekTask(weeks, 0, weeks.size(), present, startingHours));
+        return repair(assignments, present, startingHours);
+    }
+
+    private static List<Assignment> solveWeek(List<Slot> week, Map<LocalDate, List<Long>> present,
+                                              Map<Long, Integer> startingHours) {
+        Map<Long, Integer> load = new HashMap<>(startingHours);
+        // Hours per user per day, so a day's chores are spread over whoever is there
+        Map<LocalDate, Map<Long, Integer>> daily = new HashMap<>();
+
+        List<Slot> ordered = new ArrayList<>(week);
+        ordered.sort(HANDOUT_ORDER);
+        List<Assignment> assignments = new ArrayList<>(ordered.size());
+        for (Slot slot : ordered) {
+            List<Long> candidates = present.get(slot.date());
+            if (candidates == null || candidates.isEmpty()) {
+                continue;
+            }
+            Map<Long, Integer> today = daily.computeIfAbsent(slot.date(), date -> new HashMap<>());
+            long chosen = candidates.get(0);
+            for (long candidate : candidates) {
+                int byLoad = Integer.compare(load.getOrDefault(candidate, 0), load.getOrDefault(chosen, 0));
+                int byDay = Integer.compare(today.getOrDefault(candidate, 0), today.getOrDefault(chosen, 0));
+                if (byLoad < 0 || (byLoad == 0 && (byDay < 0 || (byDay == 0 && candidate < chosen)))) {
+                    chosen = candidate;
+                }
+            }
+            load.merge(chosen, slot.hours(), Integer::sum);
+            today.merge(chosen, slot.hours(), Integer::sum);
+            assignments.add(new Assignment(slot, chosen));
+        }
+        return assignments;
+    }
+
+    // Repeatedly hands one slot from the most loaded person to someone present that day with less, as
+    // long as both end up below the old maximum. Each move makes the loads strictly more even, so this
+    // settles; it is capped at one move per slot all the same.
+    private static List<Assignment> repair(List<Assignment> assignments, Map<LocalDate, List<Long>> present,
+                                           Map<Long, Integer> startingHours) {
+        Map<Long, Integer> load = new HashMap<>(startingHours);
+        Map<Long, List<Assignment>> byUser = new HashMap<>();
+        for (Assignment assignment : assignments) {
+            load.merge(assignment.userId(), assignment.slot().hours(), Integer::sum);
+            byUser.computeIfAbsent(assignment.userId(), user -> new ArrayList<>()).add(assignment);
+        }
+
+        for (int moves = 0; moves < assignments.size(); moves++) {
+            long heaviest = -1;
+            for (Map.Entry<Long, List<Assignment>> entry : byUser.entrySet()) {
+                if (!entry.getValue().isEmpty()
+                        && (heaviest < 0 || load.get(entry.getKey()) > load.get(heaviest))) {
+                    heaviest = entry.getKey();
+                }
+            }
+            if (heaviest < 0 || !moveOne(heaviest, byUser, load, present)) {
+                break;
+            }
+        }
+
+        List<Assignment> repaired = new ArrayList<>(assignments.size());
+        byUser.values().forEach(repaired::addAll);
+        return repaired;
+    }
+
+    private static boolean moveOne(long from, Map<Long, List<Assignment>> byUser, Map<Long, Integer> load,
+                                   Map<LocalDate, List<Long>> present) {
+        int fromLoad = load.get(from);
+        List<Assignment> owned = byUser.get(from);
+        for (int i = 0; i < owned.size(); i++) {
+            Slot slot = owned.get(i).slot();
+            long best = -1;
+            for (long candidate : present.get(slot.date())) {
+                int candidateLoad = load.getOrDefault(candidate, 0);
+                if (candidate != from && candidateLoad + slot.hours() < fromLoad
+                        && (best < 0 || candidateLoad < load.getOrDefault(best, 0))) {
+                    best = candidate;
+                }
+            }
+            if (best >= 0) {
+                owned.remove(i);
+                byUser.computeIfAbsent(best, user -> new ArrayList<>()).add(new Assignment(slot, best));
+                load.merge(from, -slot.hours(), Integer::sum);
+                load.merge(best, slot.hours(), Integer::sum);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Splits the weeks in halves until one is left, so the pool can spread them over its workers.
+    // A task only lives for one solve and is never serialized.
+    @SuppressWarnings("serial")
+    private static final class WeekTask extends RecursiveTask<List<Assignment>> {
+        private final List<List<Slot>> weeks;
+        private final int from;
+        private final int to;
+        private final Map<LocalDate, List<Long>> present;
+        private final Map<Long, Integer> startingHours;
+
+        WeekTask(List<List<Slot>> weeks, int from, int to, Map<LocalDate, List<Long>> present,
+                 Map<Long, Integer> startingHours) {
+            this.weeks = weeks;
+            this.from = from;
+            this.to = to;
+            this.present = present;
+            this.startingHours = startingHours;
+        }
+
+        @Override
+        protected List<Assignment> compute() {
+            if (to - from == 1) {
+                return solveWeek(weeks.get(from), present, startingHours);
+            }
+            int middle = (from + to) >>> 1;
+            WeekTask left = new WeekTask(weeks, from, middle, present, startingHours);
+            left.fork();
+            List<Assignment> result = new ArrayList<>(new WeekTask(weeks, middle, to, present, startingHours).compute());
+            result.addAll(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.lakehouse.scheduler.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class FileSystemBlobStore implements BlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9-]{8,}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Path root;
+    private final Path incoming;
+
+    // Compressed copies are only kept when they save at least this fraction of the original size
+    @Value("${storage.blob.min-compression-saving:0.1}")
+    private double minCompressionSaving;
+
+    public FileSystemBlobStore(@Value("${storage.blob.root}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(this.incoming);
+        logger.info("Storing document blobs under {}", this.root);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content, boolean compress) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        MessageDigest digest = StreamCopy.sha256();
+        long size;
+        try {
+            size = StreamCopy.copy(content, temp, digest, Long.MAX_VALUE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        Optional<LocalBlob> existing = localFile(checksum);
+        if (existing.isPresent()) {
+            // Same content is already stored, keep the existing copy
+            Files.delete(temp);
+            return new StoredBlob(checksum, checksum, size, Files.size(existing.get().path()), existing.get().encoding(), false);
+        }
+
+        Path source = temp;
+        Path target = resolve(checksum);
+        String encoding = null;
+        if (compress && size > 0) {
+            Path compressed = gzip(temp);
+            if (Files.size(compressed) <= size * (1 - minCompressionSaving)) {
+                Files.delete(temp);
+                source = compressed;
+                target = compressedPath(checksum);
+                encoding = GZIP;
+            } else {
+                Files.delete(compressed);
+            }
+        }
+
+        Files.createDirectories(target.getParent());
+        boolean created = true;
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(source);
+            created = false;
+        }
+
+        return new StoredBlob(checksum, checksum, size, Files.size(target), encoding, created);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        LocalBlob blob = localFile(key).orElseThrow(() -> new NoSuchFileException("Blob " + key));
+        InputStream in = Files.newInputStream(blob.path());
+        return GZIP.equals(blob.encoding()) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    @Override
+    public Optional<LocalBlob> localFile(String key) {
+        Path path = resolve(key);
+        if (Files.isRegularFile(path)) {
+            return Optional.of(new LocalBlob(path, null));
+        }
+        Path compressed = compressedPath(key);
+        if (Files.isRegularFile(compressed)) {
+            return Optional.of(new LocalBlob(compressed, GZIP));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return localFile(key).isPresent();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+        Files.deleteIfExists(compressedPath(key));
+    }
+
+    @Override
+    public RetiredBlob retire(String key) throws IOException {
+        Optional<LocalBlob> blob = localFile(key);
+        Path retired = null;
+        if (blob.isPresent()) {
+            retired = incoming.resolve(key + "." + UUID.randomUUID() + ".retired");
+            try {
+                Files.move(blob.get().path(), retired, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                retired = null;
+            }
+        }
+
+        Path moved = retired;
+        return new RetiredBlob() {
+            @Override
+            public void purge() throws IOException {
+                if (moved != null) {
+                    Files.deleteIfExists(moved);
+                }
+            }
+
+            @Override
+            public void restore() throws IOException {
+                if (moved == null) {
+                    return;
+                }
+                if (exists(key)) {
+                    // Re-uploaded in the meantime, the content is identical
+                    Files.deleteIfExists(moved);
+                } else {
+                    Files.move(moved, blob.get().path(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        };
+    }
+
+    private Path gzip(Path source) throws IOException {
+        Path compressed = Files.createTempFile(incoming, "upload-", ".gz.part");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_SIZE)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(compressed);
+            throw e;
+        }
+        return compressed;
+    }
+
+    // Blobs are sharded two levels deep so no directory grows past a few thousand entries
+    Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path compressedPath(String key) {
+        return resolve(key).resolveSibling(key + GZIP_SUFFIX);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.DutyAssignment;
+import com.lakehouse.scheduler.repository.DutyAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Keeps DutyAssignment.overdue current. An assignment still ASSIGNED more than after-days past its date
+// is overdue. Each pass only looks at assignments whose date crossed the cutoff since the last pass, or
+// that were changed since then, instead of rechecking the whole table.
+@Service
+public class OverdueAssignmentTracker {
+    private static final Logger logger = LoggerFactory.getLogger(OverdueAssignmentTracker.class);
+
+    @Autowired
+    private DutyAssignmentRepository dutyAssignmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${duties.overdue.after-days:7}")
+    private int afterDays;
+
+    // updatedAt is stamped before commit, so a row can become visible with a timestamp older than the
+    // previous pass; looking back this much further catches transactions that were still open
+    private static final Duration COMMIT_GRACE = Duration.ofMinutes(5);
+
+    // Where the previous pass left off; empty until the first pass has reconciled every row
+    private LocalDate lastCutoff;
+    private LocalDateTime lastRun;
+
+    @Scheduled(fixedDelayString = "${duties.overdue.scan-interval-ms:300000}")
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate cutoff = startedAt.toLocalDate().minusDays(afterDays);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (lastRun == null) {
+                int flagged = dutyAssignmentRepository.recomputeOverdue(DutyAssignment.Status.ASSIGNED, cutoff);
+                logger.debug("Recomputed overdue flag on {} assignments", flagged);
+                return;
+            }
+            LocalDateTime changedSince = lastRun.minus(COMMIT_GRACE);
+            int marked = dutyAssignmentRepository.markOverdue(DutyAssignment.Status.ASSIGNED, cutoff, lastCutoff, changedSince);
+            int cleared = dutyAssignmentRepository.clearOverdue(DutyAssignment.Status.ASSIGNED, cutoff, changedSince);
+            if (marked > 0 || cleared > 0) {
+                logger.debug("Overdue assignments: {} newly overdue, {} no longer overdue", marked, cleared);
+            }
+        });
+
+        // Only advanced once the pass has committed, so a failed pass is simply retried
+        lastCutoff = cutoff;
+        lastRun = startedAt;
+    }
+}
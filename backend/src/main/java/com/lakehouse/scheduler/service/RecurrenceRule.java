@@ -0,0 +1,134 @@
+package com.lakehouse.scheduler.service;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// The part of RFC 5545 RRULE that whole-day bookings need: FREQ=DAILY|WEEKLY|MONTHLY|YEARLY with
+// optional INTERVAL, COUNT and UNTIL. Like the RFC, a monthly rule on the 31st skips shorter months
+// instead of moving to their last day, and a skipped month doesn't count towards COUNT.
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS, 1), WEEKLY(ChronoUnit.WEEKS, 7), MONTHLY(ChronoUnit.MONTHS, 28), YEARLY(ChronoUnit.YEARS, 365);
+
+        private final ChronoUnit unit;
+        private final int minimumDays;
+
+        Frequency(ChronoUnit unit, int minimumDays) {
+            this.unit = unit;
+            this.minimumDays = minimumDays;
+        }
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+
+        String text = rule.trim().toUpperCase(Locale.ROOT);
+        if (text.startsWith("RRULE:")) {
+            text = text.substring("RRULE:".length());
+        }
+        for (String part : text.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, equals);
+            String value = part.substring(equals + 1);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    // Date or date-time form; bookings are whole days, so the time is dropped
+                    case "UNTIL" -> until = LocalDate.parse(value.substring(0, Math.min(8, value.length())),
+                            DateTimeFormatter.BASIC_ISO_DATE);
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ");
+        }
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new IllegalArgumentException("INTERVAL and COUNT must be positive");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL can't be combined");
+        }
+        return new RecurrenceRule(frequency, interval, count, until);
+    }
+
+    // Shortest possible gap between two occurrence starts
+    public int minimumSpacingDays() {
+        return frequency.minimumDays * interval;
+    }
+
+    // Start dates of the occurrences that begin within from..to (inclusive). Expansion jumps straight to
+    // the window when it can, so the cost follows the window rather than how far the rule runs.
+    public List<LocalDate> startsBetween(LocalDate first, LocalDate from, LocalDate to) {
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        if (last.isBefore(first)) {
+            return starts;
+        }
+
+        // Step n is then also occurrence n, so COUNT still holds after skipping ahead
+        long step = 0;
+        if (!canSkipDates(first) && from.isAfter(first)) {
+            step = frequency.unit.between(first, from) / interval;
+        }
+        long occurrence = step;
+
+        while (count == null || occurrence < count) {
+            LocalDate start = first.plus(step * interval, frequency.unit);
+            step++;
+            if (start.isAfter(last)) {
+                break;
+            }
+            if (start.getDayOfMonth() != first.getDayOfMonth()) {
+                // Clamped to a shorter month, which the RFC treats as no occurrence at all
+                continue;
+            }
+            occurrence++;
+            if (!start.isBefore(from)) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+
+    private boolean canSkipDates(LocalDate first) {
+        return switch (frequency) {
+            case DAILY, WEEKLY -> false;
+            case MONTHLY -> first.getDayOfMonth() > 28;
+            case YEARLY -> first.getMonth() == Month.FEBRUARY && first.getDayOfMonth() == 29;
+        };
+    }
+}
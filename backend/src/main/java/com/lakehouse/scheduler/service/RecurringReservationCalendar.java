@@ -0,0 +1,86 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.RecurringReservation;
+import com.lakehouse.scheduler.model.UserChangedEvent;
+import com.lakehouse.scheduler.repository.RecurringReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Recurring reservations held in memory as rules. Occurrences are expanded only for the window being
+// asked about, so a rule with no end costs the same as one that runs for a month.
+@Component
+public class RecurringReservationCalendar {
+
+    private volatile List<Series> series = List.of();
+
+    @Autowired
+    private RecurringReservationRepository recurringReservationRepository;
+
+    public record Occurrence(Long seriesId, LocalDate startDate, LocalDate endDate) {}
+
+    private record Series(Long id, LocalDate first, int lengthDays, RecurrenceRule rule, Set<LocalDate> excluded) {
+        static Series of(RecurringReservation reservation) {
+            return new Series(reservation.getId(), reservation.getStartDate(),
+                    (int) ChronoUnit.DAYS.between(reservation.getStartDate(), reservation.getEndDate()),
+                    RecurrenceRule.parse(reservation.getRule()), Set.copyOf(reservation.getExcludedDates()));
+        }
+
+        // Occurrences that share at least one day with from..to
+        void collect(LocalDate from, LocalDate to, List<Occurrence> into) {
+            for (LocalDate start : rule.startsBetween(first, from.minusDays(lengthDays), to)) {
+                if (!excluded.contains(start)) {
+                    into.add(new Occurrence(id, start, start.plusDays(lengthDays)));
+                }
+            }
+        }
+    }
+
+    // Rules are few and change rarely, so every change reloads them all rather than patching the list
+    @PostConstruct
+    public void reload() {
+        List<Series> loaded = new ArrayList<>();
+        for (RecurringReservation reservation : recurringReservationRepository.findAllWithExcludedDates()) {
+            loaded.add(Series.of(reservation));
+        }
+        series = List.copyOf(loaded);
+    }
+
+    public List<Occurrence> occurrences(LocalDate from, LocalDate to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Series s : series) {
+            s.collect(from, to, occurrences);
+        }
+        occurrences.sort((a, b) -> a.startDate().compareTo(b.startDate()));
+        return occurrences;
+    }
+
+    public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        return !occurrences(startDate, endDate).isEmpty();
+    }
+
+    // For moving an occurrence: it may overlap the dates it is about to give up
+    public boolean overlapsOtherThan(LocalDate startDate, LocalDate endDate, Long seriesId, LocalDate occurrenceDate) {
+        for (Occurrence occurrence : occurrences(startDate, endDate)) {
+            if (!occurrence.seriesId().equals(seriesId) || !occurrence.startDate().equals(occurrenceDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Deleting a user cascades to their rules in the database without going through JPA
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            reload();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.RefreshToken;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+// Long-lived refresh tokens, stored only as SHA-256 hashes. Each use rotates the token; presenting
+// one that was already rotated means it leaked, and the whole sign-in (token family) is revoked.
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
+    public record Rotation(User user, String refreshToken) {}
+
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken));
+        if (!found.isPresent()) {
+            return Optional.empty();
+        }
+
+        RefreshToken token = found.get();
+        if (token.getRevoked() || token.getUsedAt() != null) {
+            logger.warn("Refresh token reused for user {}, revoking its sign-in", token.getUser().getId());
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            return Optional.empty();
+        }
+
+        User user = token.getUser();
+        if (token.isExpired() || token.getTokenVersion() != user.getTokenVersion()) {
+            return Optional.empty();
+        }
+
+        token.setUsedAt(LocalDateTime.now());
+        return Optional.of(new Rotation(user, create(user, token.getFamilyId())));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation-cleanup-interval-ms}")
+    @Transactional
+    public void removeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs));
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, user, expiresAt));
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        return HexFormat.of().formatHex(StreamCopy.sha256().digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.lakehouse.scheduler.service;
+
+// The requested dates overlap a reservation that is already held
+public class ReservationConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ReservationConflictException() {
+        super("Dates conflict with existing reservation");
+    }
+}
@@ -0,0 +1,222 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.dto.AvailabilityRange;
+import com.lakehouse.scheduler.model.Reservation;
+import com.lakehouse.scheduler.model.ReservationChangedEvent;
+import com.lakehouse.scheduler.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Every reservation that holds its dates (anything not cancelled), kept in memory so a conflict check
+// is a binary search instead of a query, along with a per-day bitmap for the availability calendar.
+// Readers use the current snapshot without locking; changes are applied by one writer at a time,
+// which builds a new snapshot and swaps it in.
+@Component
+public class ReservationIndex {
+
+    private static final int YEAR_WORDS = 6;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    // Intervals sorted by start day, both ends inclusive as epoch days. maxEnds[i] is the latest end
+    // among the first i + 1 intervals, so "does anything starting before X reach Y" is one lookup.
+    // occupancy holds one bit per day, a 384-bit array per year indexed by day of year.
+    private record Snapshot(long[] ids, int[] starts, int[] ends, int[] maxEnds, Map<Integer, long[]> occupancy) {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], new int[0], Map.of());
+
+        boolean isBooked(LocalDate day) {
+            long[] bits = occupancy.get(day.getYear());
+            int bit = day.getDayOfYear() - 1;
+            return bits != null && (bits[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        // Number of intervals starting on or before day
+        int countStartingBy(int day) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    @PostConstruct
+    synchronized void load() {
+        // Rows come back ordered by start date, so the arrays are filled in place
+        List<Object[]> rows = reservationRepository.findIntervalsByStatusNot(Reservation.Status.CANCELLED);
+        long[] ids = new long[rows.size()];
+        int[] starts = new int[rows.size()];
+        int[] ends = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            starts[i] = (int) ((LocalDate) row[1]).toEpochDay();
+            ends[i] = (int) ((LocalDate) row[2]).toEpochDay();
+        }
+        Map<Integer, long[]> occupancy = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            mark(occupancy, starts[i], ends[i], true);
+        }
+        snapshot = new Snapshot(ids, starts, ends, runningMax(ends), Map.copyOf(occupancy));
+    }
+
+    // Same rule as the old overlap query: ranges sharing even one day conflict
+    public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        Snapshot current = snapshot;
+        int candidates = current.countStartingBy((int) endDate.toEpochDay());
+        return candidates > 0 && current.maxEnds()[candidates - 1] >= startDate.toEpochDay();
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    // Free and booked runs covering from..to, read off the day bitmap in one pass over the days.
+    // alsoBooked marks further booked days, bit i standing for from + i days.
+    public List<AvailabilityRange> availability(LocalDate from, LocalDate to, BitSet alsoBooked) {
+        Snapshot current = snapshot;
+        List<AvailabilityRange> ranges = new ArrayList<>();
+        LocalDate runStart = from;
+        boolean runBooked = current.isBooked(from) || alsoBooked.get(0);
+        int offset = 1;
+        for (LocalDate day = from.plusDays(1); !day.isAfter(to); day = day.plusDays(1), offset++) {
+            boolean booked = current.isBooked(day) || alsoBooked.get(offset);
+            if (booked != runBooked) {
+                ranges.add(new AvailabilityRange(runStart, day.minusDays(1), runBooked));
+                runStart = day;
+                runBooked = booked;
+            }
+        }
+        ranges.add(new AvailabilityRange(runStart, to, runBooked));
+        return ranges;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        Snapshot current = snapshot;
+        Snapshot next = current;
+
+        // The days whose bits may change: wherever the reservation was before, and where it is now
+        int dirtyStart = Integer.MAX_VALUE;
+        int dirtyEnd = Integer.MIN_VALUE;
+        int at = current.indexOf(event.reservationId());
+        if (at >= 0) {
+            dirtyStart = current.starts()[at];
+            dirtyEnd = current.ends()[at];
+            next = remove(next, at);
+        }
+        if (event.blocksDates()) {
+            next = insert(next, event.reservationId(), event.startDate(), event.endDate());
+            dirtyStart = Math.min(dirtyStart, (int) event.startDate().toEpochDay());
+            dirtyEnd = Math.max(dirtyEnd, (int) event.endDate().toEpochDay());
+        }
+        if (next == current) {
+            return;
+        }
+        snapshot = withOccupancy(next, current.occupancy(), dirtyStart, dirtyEnd);
+    }
+
+    // Clears the dirty days and sets them again from whatever still overlaps them, so a day shared by
+    // two reservations stays booked when only one goes away. Only the years touched are copied.
+    private static Snapshot withOccupancy(Snapshot next, Map<Integer, long[]> previous, int dirtyStart, int dirtyEnd) {
+        Map<Integer, long[]> occupancy = new HashMap<>(previous);
+        for (int year = LocalDate.ofEpochDay(dirtyStart).getYear(); year <= LocalDate.ofEpochDay(dirtyEnd).getYear(); year++) {
+            long[] bits = occupancy.get(year);
+            occupancy.put(year, bits != null ? bits.clone() : new long[YEAR_WORDS]);
+        }
+        mark(occupancy, dirtyStart, dirtyEnd, false);
+
+        int candidates = next.countStartingBy(dirtyEnd);
+        for (int i = 0; i < candidates; i++) {
+            if (next.ends()[i] >= dirtyStart) {
+                mark(occupancy, Math.max(next.starts()[i], dirtyStart), Math.min(next.ends()[i], dirtyEnd), true);
+            }
+        }
+        return new Snapshot(next.ids(), next.starts(), next.ends(), next.maxEnds(), Map.copyOf(occupancy));
+    }
+
+    private static void mark(Map<Integer, long[]> occupancy, int startDay, int endDay, boolean booked) {
+        for (int day = startDay; day <= endDay; day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            long[] bits = occupancy.computeIfAbsent(date.getYear(), year -> new long[YEAR_WORDS]);
+            int bit = date.getDayOfYear() - 1;
+            if (booked) {
+                bits[bit >>> 6] |= 1L << bit;
+            } else {
+                bits[bit >>> 6] &= ~(1L << bit);
+            }
+        }
+    }
+
+    private static Snapshot insert(Snapshot current, long id, LocalDate startDate, LocalDate endDate) {
+        int start = (int) startDate.toEpochDay();
+        int end = (int) endDate.toEpochDay();
+        int at = current.countStartingBy(start);
+        int size = current.size();
+
+        long[] ids = Arrays.copyOf(current.ids(), size + 1);
+        int[] starts = Arrays.copyOf(current.starts(), size + 1);
+        int[] ends = Arrays.copyOf(current.ends(), size + 1);
+        System.arraycopy(current.ids(), at, ids, at + 1, size - at);
+        System.arraycopy(current.starts(), at, starts, at + 1, size - at);
+        System.arraycopy(current.ends(), at, ends, at + 1, size - at);
+        ids[at] = id;
+        starts[at] = start;
+        ends[at] = end;
+        return new Snapshot(ids, starts, ends, runningMax(ends), current.occupancy());
+    }
+
+    private static Snapshot remove(Snapshot current, int at) {
+        int size = current.size();
+        long[] ids = new long[size - 1];
+        int[] starts = new int[size - 1];
+        int[] ends = new int[size - 1];
+        System.arraycopy(current.ids(), 0, ids, 0, at);
+        System.arraycopy(current.starts(), 0, starts, 0, at);
+        System.arraycopy(current.ends(), 0, ends, 0, at);
+        System.arraycopy(current.ids(), at + 1, ids, at, size - at - 1);
+        System.arraycopy(current.starts(), at + 1, starts, at, size - at - 1);
+        System.arraycopy(current.ends(), at + 1, ends, at, size - at - 1);
+        return new Snapshot(ids, starts, ends, runningMax(ends), current.occupancy());
+    }
+
+    private static int[] runningMax(int[] ends) {
+        int[] maxEnds = new int[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+        return maxEnds;
+    }
+}
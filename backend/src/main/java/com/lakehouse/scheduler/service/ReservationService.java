@@ -0,0 +1,145 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.RecurringReservation;
+import com.lakehouse.scheduler.model.Reservation;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.RecurringReservationRepository;
+import com.lakehouse.scheduler.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Service
+public class ReservationService {
+
+    // PostgreSQL's SQLSTATE for a row rejected by an exclusion constraint
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Recurring reservations only exist in memory as rules, which the database constraint can't see;
+    // bookings and changes to the rules are checked and saved one at a time
+    private final Object recurrenceLock = new Object();
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RecurringReservationRepository recurringReservationRepository;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private RecurringReservationCalendar recurringCalendar;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // How far ahead a new recurring reservation is checked against existing bookings
+    @Value("${reservations.recurring.conflict-horizon-days:730}")
+    private int conflictHorizonDays;
+
+    // The index check turns away most conflicts without touching the database, and two bookings racing
+    // past it are settled by the reservations_no_overlap constraint. That constraint can't see recurring
+    // rules, so the check and insert hold the recurrence lock to keep a new series from slipping in between.
+    public Reservation create(LocalDate startDate, LocalDate endDate, String notes, User user) {
+        synchronized (recurrenceLock) {
+            if (reservationIndex.overlaps(startDate, endDate) || recurringCalendar.overlaps(startDate, endDate)) {
+                throw new ReservationConflictException();
+            }
+            try {
+                return reservationRepository.save(new Reservation(startDate, endDate, notes, user));
+            } catch (DataIntegrityViolationException e) {
+                throw translate(e);
+            }
+        }
+    }
+
+    public RecurringReservation createRecurring(LocalDate startDate, LocalDate endDate, String rule, String notes, User user) {
+        RecurrenceRule recurrence = RecurrenceRule.parse(rule);
+        long lengthDays = ChronoUnit.DAYS.between(startDate, endDate);
+        if (lengthDays >= recurrence.minimumSpacingDays()) {
+            throw new IllegalArgumentException("Occurrences of this rule would overlap each other");
+        }
+
+        synchronized (recurrenceLock) {
+            LocalDate horizon = startDate.plusDays(conflictHorizonDays);
+            for (LocalDate start : recurrence.startsBetween(startDate, startDate, horizon)) {
+                LocalDate end = start.plusDays(lengthDays);
+                if (reservationIndex.overlaps(start, end) || recurringCalendar.overlaps(start, end)) {
+                    throw new ReservationConflictException();
+                }
+            }
+            RecurringReservation saved = recurringReservationRepository.save(
+                    new RecurringReservation(startDate, endDate, rule.trim(), notes, user));
+            recurringCalendar.reload();
+            return saved;
+        }
+    }
+
+    public void deleteRecurring(Long seriesId) {
+        synchronized (recurrenceLock) {
+            recurringReservationRepository.deleteById(seriesId);
+            recurringCalendar.reload();
+        }
+    }
+
+    public void cancelOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        synchronized (recurrenceLock) {
+            transactionTemplate.executeWithoutResult(status ->
+                    loadOccurrence(seriesId, occurrenceDate).getExcludedDates().add(occurrenceDate));
+            recurringCalendar.reload();
+        }
+    }
+
+    // Materializes one occurrence as a Reservation row with the new dates and notes; the rule skips
+    // that date from then on and the rest of the series is left alone
+    public Reservation editOccurrence(Long seriesId, LocalDate occurrenceDate, LocalDate startDate, LocalDate endDate, String notes) {
+        synchronized (recurrenceLock) {
+            if (reservationIndex.overlaps(startDate, endDate)
+                    || recurringCalendar.overlapsOtherThan(startDate, endDate, seriesId, occurrenceDate)) {
+                throw new ReservationConflictException();
+            }
+            try {
+                Reservation saved = transactionTemplate.execute(status -> {
+                    RecurringReservation series = loadOccurrence(seriesId, occurrenceDate);
+                    series.getExcludedDates().add(occurrenceDate);
+
+                    Reservation reservation = new Reservation(startDate, endDate, notes, series.getUser());
+                    reservation.setRecurrence(series);
+                    reservation.setOccurrenceDate(occurrenceDate);
+                    return reservationRepository.save(reservation);
+                });
+                recurringCalendar.reload();
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                throw translate(e);
+            }
+        }
+    }
+
+    private RecurringReservation loadOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        RecurringReservation series = recurringReservationRepository.findById(seriesId)
+                .orElseThrow(() -> new IllegalArgumentException("Recurring reservation not found"));
+        boolean scheduled = RecurrenceRule.parse(series.getRule())
+                .startsBetween(series.getStartDate(), occurrenceDate, occurrenceDate).contains(occurrenceDate);
+        if (!scheduled || series.getExcludedDates().contains(occurrenceDate)) {
+            throw new IllegalArgumentException("No occurrence starts on " + occurrenceDate);
+        }
+        return series;
+    }
+
+    private RuntimeException translate(DataIntegrityViolationException e) {
+        if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sql
+                && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+            return new ReservationConflictException();
+        }
+        return e;
+    }
+}
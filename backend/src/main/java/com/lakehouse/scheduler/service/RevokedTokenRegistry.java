@@ -0,0 +1,60 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.RevokedToken;
+import com.lakehouse.scheduler.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ids (jti) of access tokens revoked before they expired. The set only holds tokens that are still
+// live, which with short access tokens is a handful, and a lookup is a single hash probe.
+@Component
+public class RevokedTokenRegistry {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @PostConstruct
+    void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            revoked.put(token.getJti(), toEpochMillis(token.getExpiresAt()));
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+        revoked.put(jti, expiresAt.getTime());
+    }
+
+    // Expired tokens are rejected on their own, so their revocation entries can go
+    @Scheduled(fixedDelayString = "${jwt.revocation-cleanup-interval-ms}")
+    @Transactional
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,210 @@
+package com.lakehouse.scheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Renders small JPEG previews in the background. Thumbnails are keyed by content hash like the blobs,
+// so identical uploads share one and a thumbnail never changes once written.
+@Service
+public class ThumbnailService {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+    private static final String PDF_TYPE = "application/pdf";
+
+    private final Path root;
+    private final int size;
+    private final ThreadPoolExecutor executor;
+
+    // Keys queued or rendering right now, so repeated requests don't pile up duplicate work
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private BlobStore blobStore;
+
+    public ThumbnailService(@Value("${storage.thumbnail.root}") String root,
+                            @Value("${storage.thumbnail.size:256}") int size,
+                            @Value("${storage.thumbnail.threads:2}") int threads,
+                            @Value("${storage.thumbnail.queue-capacity:500}") int queueCapacity) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.size = size;
+        Files.createDirectories(this.root);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded on both threads and queue; when full the work is dropped and redone on the next request
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean supports(String contentType) {
+        String type = baseType(contentType);
+        return type != null && (IMAGE_TYPES.contains(type) || PDF_TYPE.equals(type));
+    }
+
+    public Optional<Path> find(String blobKey) {
+        Path path = thumbnailPath(blobKey);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    // Never blocks the caller; returns false when the thumbnail can't be queued right now
+    public boolean request(String blobKey, String contentType) {
+        if (!supports(contentType) || find(blobKey).isPresent() || !pending.add(blobKey)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(blobKey, baseType(contentType));
+                } catch (Exception e) {
+                    logger.warn("Could not create thumbnail for blob {}: {}", blobKey, e.getMessage());
+                } finally {
+                    pending.remove(blobKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(blobKey);
+            logger.debug("Thumbnail queue full, skipping blob {}", blobKey);
+            return false;
+        }
+    }
+
+    public void delete(String blobKey) {
+        try {
+            Files.deleteIfExists(thumbnailPath(blobKey));
+        } catch (IOException e) {
+            logger.warn("Could not delete thumbnail for blob {}: {}", blobKey, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String blobKey, String type) throws IOException {
+        BufferedImage source = PDF_TYPE.equals(type) ? renderFirstPage(blobKey) : readImage(blobKey);
+        if (source == null) {
+            return;
+        }
+
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path target = thumbnailPath(blobKey);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "thumb-", ".part");
+        try {
+            ImageIO.write(thumbnail, "jpg", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Large photos are subsampled while decoding, so a 50 megapixel upload never becomes a 200 MB raster
+    private BufferedImage readImage(String blobKey) throws IOException {
+        try (InputStream content = blobStore.open(blobKey);
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestSide / (size * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage renderFirstPage(String blobKey) throws IOException {
+        return BlobPdf.withDocument(blobStore, blobKey, root, document -> {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            // Scale 1 renders at 72 dpi, one pixel per point; rendering at twice the target size and
+            // scaling down afterwards keeps small text legible
+            float scale = size / Math.max(box.getWidth(), box.getHeight());
+            return new PDFRenderer(document).renderImage(0, Math.min(scale, 1f) * 2, ImageType.RGB);
+        });
+    }
+
+    private Path thumbnailPath(String blobKey) {
+        // Keys are validated before they reach the filesystem, then sharded one level deep
+        if (blobKey == null || !blobKey.matches("[A-Za-z0-9-]{8,}")) {
+            throw new IllegalArgumentException("Invalid blob key: " + blobKey);
+        }
+        return root.resolve(blobKey.substring(0, 2)).resolve(blobKey + ".jpg");
+    }
+
+    private static String baseType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        return parameters >= 0 ? type.substring(0, parameters).trim() : type;
+    }
+}
@@ -0,0 +1,49 @@
+package com.lakehouse.scheduler.service;
+
+import com.lakehouse.scheduler.model.UserChangedEvent;
+import com.lakehouse.scheduler.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current token version of every user, held in memory so a token can be checked against role changes
+// and deletions without a query. Loaded once at startup and kept up to date from UserChangedEvent.
+@Component
+public class TokenVersionRegistry {
+
+    // Marks deleted users, so their tokens keep failing without going back to the database
+    private static final int DELETED = -1;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostConstruct
+    void load() {
+        for (Object[] row : userRepository.findAllTokenVersions()) {
+            versions.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            // Only users this instance hasn't seen yet cost a lookup
+            Optional<Integer> stored = userRepository.findTokenVersionById(userId);
+            current = stored.orElse(DELETED);
+            versions.putIfAbsent(userId, current);
+        }
+        return current == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.put(event.userId(), event.deleted() ? DELETED : event.tokenVersion());
+    }
+}
@@ -1,16 +1,24 @@
 package com.lakehouse.scheduler.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.model.UserChangedEvent;
 import com.lakehouse.scheduler.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -19,21 +27,55 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${security.user-cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    @Value("${security.user-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Principals are immutable, so a cached one can be handed to any number of requests
+    private Cache<String, UserPrincipal> principals;
+
+    @PostConstruct
+    void initCache() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userDetails");
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Concurrent misses for one username share a single query; unknown users are not cached
+        return principals.get(username, this::loadPrincipal);
+    }
+
+    private UserPrincipal loadPrincipal(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
         return UserPrincipal.create(user);
     }
 
+    // Every user write goes through JPA and raises this event, so updateUser, updateUserRole, deleteUser
+    // and make-admin all evict here. Matching on id also drops the entry under a username that was just changed.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        principals.asMap().values().removeIf(principal -> principal.getId().equals(event.userId()));
+    }
+
     public static class UserPrincipal implements UserDetails {
         private Long id;
         private String username;
         private String email;
         private String password;
         private Collection<? extends GrantedAuthority> authorities;
+        private int tokenVersion;
 
         public UserPrincipal(Long id, String username, String email, String password,
                              Collection<? extends GrantedAuthority> authorities) {
@@ -44,6 +86,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             this.authorities = authorities;
         }
 
+        public UserPrincipal(Long id, String username, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+            this(id, username, email, password, authorities);
+            this.tokenVersion = tokenVersion;
+        }
+
         public static UserPrincipal create(User user) {
             // For admin roles (both ADMIN and Admin), grant ROLE_ADMIN authority
             String roleName = user.isAdmin() ? "ADMIN" : user.getRole().name();
@@ -54,13 +102,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     user.getUsername(),
                     user.getEmail(),
                     user.getPassword(),
-                    Collections.singletonList(authority));
+                    Collections.singletonList(authority),
+                    user.getTokenVersion());
         }
 
         public Long getId() {
             return id;
         }
 
+        public int getTokenVersion() {
+            return tokenVersion;
+        }
+
         public String getEmail() {
             return email;
         }
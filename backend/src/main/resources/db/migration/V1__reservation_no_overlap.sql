@@ -0,0 +1,51 @@
+-- Tables are still created by Hibernate (ddl-auto=update), which runs after Flyway. The reservations
+-- table is created here first on an empty database so the constraint has something to attach to;
+-- Hibernate adds the foreign key to users once that table exists.
+CREATE TABLE IF NOT EXISTS reservations (
+    id BIGSERIAL PRIMARY KEY,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    notes VARCHAR(500),
+    status VARCHAR(20),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    user_id BIGINT NOT NULL
+);
+
+-- Bookings that slipped past the old check-then-insert race would stop the constraint from being
+-- created. Bookings are kept in id order and only one that overlaps a booking already kept is
+-- cancelled, not deleted, so it can be reviewed. In a chain A, B, C where only neighbours overlap,
+-- just B is cancelled.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    CREATE TEMP TABLE kept_reservations (start_date DATE, end_date DATE) ON COMMIT DROP;
+    FOR r IN
+        SELECT id, start_date, end_date FROM reservations
+        WHERE status IS NULL OR status <> 'CANCELLED'
+        ORDER BY id
+    LOOP
+        IF EXISTS (
+            SELECT 1 FROM kept_reservations k
+            WHERE k.start_date <= r.end_date
+              AND k.end_date >= r.start_date
+        ) THEN
+            UPDATE reservations SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP WHERE id = r.id;
+            RAISE NOTICE 'Cancelled reservation % (% to %), it overlaps an earlier booking',
+                r.id, r.start_date, r.end_date;
+        ELSE
+            INSERT INTO kept_reservations VALUES (r.start_date, r.end_date);
+        END IF;
+    END LOOP;
+END $$;
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_dates_ordered CHECK (end_date >= start_date);
+
+-- Both ends inclusive, matching the application's overlap rule: a reservation ending on a day
+-- conflicts with one starting that same day. Cancelled reservations don't hold their dates.
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_no_overlap
+    EXCLUDE USING gist (daterange(start_date, end_date, '[]') WITH &&)
+    WHERE (status IS NULL OR status <> 'CANCELLED');
@@ -0,0 +1,23 @@
+-- The archive filter matches any part of a file name (LIKE '%...%'), which a b-tree index can't serve.
+-- A trigram index can, including the leading wildcard. As in V1, the table is created here first on
+-- an empty database so the index has something to attach to; Hibernate adds the foreign key later.
+CREATE TABLE IF NOT EXISTS documents (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    original_file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    file_extension VARCHAR(255),
+    file_size BIGINT NOT NULL,
+    blob_key VARCHAR(255),
+    checksum VARCHAR(64),
+    uploaded_at TIMESTAMP(6) NOT NULL,
+    uploaded_by BIGINT NOT NULL,
+    description VARCHAR(255)
+);
+
+-- pg_trgm is a trusted extension, so the database owner can create it without superuser rights
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Matches the LOWER(original_file_name) LIKE LOWER(?) the archive query runs
+CREATE INDEX IF NOT EXISTS idx_documents_original_file_name_trgm
+    ON documents USING gin (lower(original_file_name) gin_trgm_ops);
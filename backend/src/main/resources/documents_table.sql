@@ -1,3 +1,12 @@
+-- Content-addressed blobs shared by identical documents
+CREATE TABLE IF NOT EXISTS document_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    stored_size BIGINT,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create documents table for blob storage
 CREATE TABLE IF NOT EXISTS documents (
     id BIGSERIAL PRIMARY KEY,
@@ -6,7 +15,8 @@ CREATE TABLE IF NOT EXISTS documents (
     content_type VARCHAR(255) NOT NULL,
     file_extension VARCHAR(50),
     file_size BIGINT NOT NULL,
-    data BYTEA NOT NULL,
+    blob_key VARCHAR(255) NOT NULL,
+    checksum VARCHAR(64) NOT NULL,
     uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     uploaded_by BIGINT NOT NULL,
     description TEXT,
@@ -19,13 +29,15 @@ CREATE INDEX IF NOT EXISTS idx_documents_uploaded_at ON documents(uploaded_at DE
 CREATE INDEX IF NOT EXISTS idx_documents_original_file_name ON documents(original_file_name);
 
 -- Add comments for documentation
-COMMENT ON TABLE documents IS 'Table for storing uploaded documents as binary data';
+COMMENT ON TABLE documents IS 'Metadata for uploaded documents, content lives in the blob store';
 COMMENT ON COLUMN documents.file_name IS 'Unique filename generated by the system (UUID-based)';
 COMMENT ON COLUMN documents.original_file_name IS 'Original filename as uploaded by the user';
 COMMENT ON COLUMN documents.content_type IS 'MIME type of the uploaded file';
 COMMENT ON COLUMN documents.file_extension IS 'File extension extracted from the original filename';
 COMMENT ON COLUMN documents.file_size IS 'Size of the file in bytes';
-COMMENT ON COLUMN documents.data IS 'Binary data of the uploaded file';
+COMMENT ON TABLE document_blobs IS 'Stored file contents keyed by SHA-256, reclaimed when ref_count reaches zero';
+COMMENT ON COLUMN documents.blob_key IS 'Key of the file content in the blob store (the SHA-256 for deduplicated blobs)';
+COMMENT ON COLUMN documents.checksum IS 'SHA-256 of the file content, hex encoded';
 COMMENT ON COLUMN documents.uploaded_at IS 'Timestamp when the document was uploaded';
 COMMENT ON COLUMN documents.uploaded_by IS 'ID of the user who uploaded the document';
 COMMENT ON COLUMN documents.description IS 'Optional description provided by the user';
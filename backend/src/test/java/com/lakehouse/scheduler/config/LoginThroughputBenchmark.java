@@ -0,0 +1,189 @@
+package com.lakehouse.scheduler.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lakehouse.scheduler.PostgresTestConfiguration;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Measures sign-in throughput and how slow ordinary authenticated requests get while sign-ins saturate
+// the password hashing pool. Not part of the regular suite (surefire only picks up *Test classes), run it with
+//   mvn test -Dtest=LoginThroughputBenchmark
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "rate-limit.enabled=false")
+@ActiveProfiles("test")
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+    private static final int LOGIN_USERS = 20;
+    private static final int LOGIN_THREADS = 32;
+    private static final int READER_THREADS = 8;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private String readerToken;
+
+    @BeforeAll
+    void createUsers() throws Exception {
+        String hash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i <= LOGIN_USERS; i++) {
+            String username = "bench" + i;
+            if (!userRepository.existsByUsername(username)) {
+                userRepository.save(new User(username, username + "@example.com", "Bench", "User " + i, hash));
+            }
+        }
+
+        HttpResponse<String> response = signIn("bench0");
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode body = objectMapper.readTree(response.body());
+        readerToken = body.get("accessToken").asText();
+    }
+
+    @Test
+    void readerLatencyUnderConcurrentLogins() throws Exception {
+        // Reader latency with no sign-ins running, for comparison
+        runReaders(WARMUP);
+        long[] idle = runReaders(MEASUREMENT);
+
+        AtomicLong logins = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService loginPool = Executors.newFixedThreadPool(LOGIN_THREADS);
+        long stopAt = System.nanoTime() + WARMUP.plus(MEASUREMENT).toNanos();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        List<Future<?>> loginTasks = new ArrayList<>();
+        for (int t = 0; t < LOGIN_THREADS; t++) {
+            String username = "bench" + (1 + t % LOGIN_USERS);
+            loginTasks.add(loginPool.submit(() -> {
+                while (System.nanoTime() < stopAt) {
+                    int status = signIn(username).statusCode();
+                    if (System.nanoTime() < measureFrom) {
+                        continue;
+                    }
+                    if (status == 200) {
+                        logins.incrementAndGet();
+                    } else if (status == 503) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        runReaders(WARMUP);
+        long[] busy = runReaders(MEASUREMENT);
+        for (Future<?> task : loginTasks) {
+            task.get();
+        }
+        loginPool.shutdown();
+
+        double seconds = MEASUREMENT.toMillis() / 1000.0;
+        System.out.printf("Sign-in throughput: %.1f/s accepted, %.1f/s rejected with 503, %d failed%n",
+                logins.get() / seconds, rejected.get() / seconds, failed.get());
+        System.out.printf("GET /reservations/my idle:       %d requests, p50 %.1f ms, p99 %.1f ms%n",
+                idle.length, percentileMillis(idle, 50), percentileMillis(idle, 99));
+        System.out.printf("GET /reservations/my with logins: %d requests, p50 %.1f ms, p99 %.1f ms%n",
+                busy.length, percentileMillis(busy, 50), percentileMillis(busy, 99));
+
+        assertEquals(0, failed.get(), "sign-ins should either succeed or be shed with 503");
+        assertTrue(logins.get() > 0, "no sign-in succeeded");
+    }
+
+    // Returns the latency of every request that completed in the window, in nanoseconds
+    private long[] runReaders(Duration window) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(READER_THREADS);
+        long stopAt = System.nanoTime() + window.toNanos();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int t = 0; t < READER_THREADS; t++) {
+            results.add(readers.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                start.await();
+                while (System.nanoTime() < stopAt) {
+                    long began = System.nanoTime();
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/reservations/my"))
+                            .header("Authorization", "Bearer " + readerToken)
+                            .GET()
+                            .build(), HttpResponse.BodyHandlers.ofString());
+                    latencies.add(System.nanoTime() - began);
+                    assertEquals(200, response.statusCode(), response.body());
+                }
+                return latencies;
+            }));
+        }
+        start.countDown();
+
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            all.addAll(result.get());
+        }
+        readers.shutdown();
+        return all.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private HttpResponse<String> signIn(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD));
+        return client.send(HttpRequest.newBuilder(uri("/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api" + path);
+    }
+
+    private static double percentileMillis(long[] latencies, int percentile) {
+        if (latencies.length == 0) {
+            return Double.NaN;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
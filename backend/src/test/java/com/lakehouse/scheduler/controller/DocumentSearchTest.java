@@ -0,0 +1,105 @@
+package com.lakehouse.scheduler.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lakehouse.scheduler.PostgresTestConfiguration;
+import com.lakehouse.scheduler.config.JwtUtils;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentSearchTest {
+
+    // Indexing runs on a background thread after the upload commits
+    private static final long INDEX_WAIT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String token;
+    private long leaseId;
+
+    @BeforeAll
+    void uploadLease() throws Exception {
+        User user = userRepository.save(new User("searcher", "searcher@example.com",
+                "Search", "User", "not-a-real-hash"));
+        token = jwtUtils.generateTokenForPrincipal(UserDetailsServiceImpl.UserPrincipal.create(user));
+
+        // The body doesn't mention the name, so only the file name can match
+        MockMultipartFile file = new MockMultipartFile("file", "lease.pdf", "text/plain",
+                "Signed by both parties".getBytes(StandardCharsets.UTF_8));
+        String body = mockMvc.perform(multipart("/documents/upload").file(file)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        leaseId = objectMapper.readTree(body).get("id").asLong();
+    }
+
+    @Test
+    void exactFileNameFindsDocument() throws Exception {
+        assertTrue(eventuallyFound("filename", "lease.pdf"), "filename=lease.pdf should find lease.pdf");
+    }
+
+    @Test
+    void wordOfFileNameFindsDocument() throws Exception {
+        assertTrue(eventuallyFound("q", "lease"), "q=lease should find lease.pdf");
+    }
+
+    private boolean eventuallyFound(String parameter, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + INDEX_WAIT_MILLIS;
+        while (true) {
+            if (search(parameter, text).contains(leaseId)) {
+                return true;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private List<Long> search(String parameter, String text) throws Exception {
+        String body = mockMvc.perform(get("/documents/search").param(parameter, text)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode result : objectMapper.readTree(body)) {
+            ids.add(result.get("id").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,125 @@
+package com.lakehouse.scheduler.controller;
+
+import com.lakehouse.scheduler.PostgresTestConfiguration;
+import com.lakehouse.scheduler.QueryCounter;
+import com.lakehouse.scheduler.config.JwtUtils;
+import com.lakehouse.scheduler.model.Duty;
+import com.lakehouse.scheduler.model.DutyAssignment;
+import com.lakehouse.scheduler.model.Reservation;
+import com.lakehouse.scheduler.model.User;
+import com.lakehouse.scheduler.repository.DutyAssignmentRepository;
+import com.lakehouse.scheduler.repository.DutyRepository;
+import com.lakehouse.scheduler.repository.ReservationRepository;
+import com.lakehouse.scheduler.repository.UserRepository;
+import com.lakehouse.scheduler.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each list endpoint must load its rows and everything its DTOs read in a fixed number of queries,
+// however many rows there are. A lazy association read per row shows up here as a higher count.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.lakehouse.scheduler.QueryCounter")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointQueryCountTest {
+
+    private static final int USERS = 3;
+    private static final int ROWS_PER_USER = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DutyRepository dutyRepository;
+
+    @Autowired
+    private DutyAssignmentRepository dutyAssignmentRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private String token;
+
+    @BeforeAll
+    void createRows() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User("counted" + i, "counted" + i + "@example.com",
+                    "Counted", "User " + i, "not-a-real-hash")));
+        }
+        Duty sweeping = dutyRepository.save(new Duty("Sweep the dock", null, 1, Duty.Priority.LOW));
+        Duty mowing = dutyRepository.save(new Duty("Mow the lawn", null, 2, Duty.Priority.MEDIUM));
+
+        LocalDate start = LocalDate.now().plusDays(1);
+        int row = 0;
+        for (User user : users) {
+            for (int i = 0; i < ROWS_PER_USER; i++, row++) {
+                Duty duty = row % 2 == 0 ? sweeping : mowing;
+                dutyAssignmentRepository.save(new DutyAssignment(start.plusDays(row), user, duty));
+                LocalDate from = start.plusDays(row * 3L);
+                reservationRepository.save(new Reservation(from, from.plusDays(1), "Stay " + row, user));
+            }
+        }
+
+        token = jwtUtils.generateTokenForPrincipal(UserDetailsServiceImpl.UserPrincipal.create(users.get(0)));
+    }
+
+    @Test
+    void dutyAssignments() throws Exception {
+        assertQueries("/duties/assignments", USERS * ROWS_PER_USER, 1);
+    }
+
+    @Test
+    void myDutyAssignments() throws Exception {
+        assertQueries("/duties/assignments/my", ROWS_PER_USER, 1);
+    }
+
+    // The page of reservations, then the recurring series whose occurrences are merged in
+    @Test
+    void reservations() throws Exception {
+        assertQueries("/reservations", USERS * ROWS_PER_USER, 2);
+    }
+
+    @Test
+    void myReservations() throws Exception {
+        assertQueries("/reservations/my", ROWS_PER_USER, 2);
+    }
+
+    private void assertQueries(String path, int rows, int expectedQueries) throws Exception {
+        // The first request may still fill per-user caches, only a warm request is counted
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        QueryCounter.reset();
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(rows));
+        assertEquals(expectedQueries, QueryCounter.count(), "queries for GET " + path);
+    }
+}
@@ -3,9 +3,11 @@ import React, {
   useContext,
   useState,
   useEffect,
+  useRef,
+  useCallback,
   ReactNode,
 } from "react";
-import axios from "axios";
+import axios, { AxiosError, InternalAxiosRequestConfig } from "axios";
 
 interface User {
   id: number;
@@ -37,6 +39,27 @@ interface RegisterData {
 
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
 
+const API_BASE_URL = "http://localhost:8082/api";
+
+// Access tokens are short-lived; renew them this long before they expire
+const REFRESH_MARGIN_MS = 60 * 1000;
+
+type RetriableRequest = InternalAxiosRequestConfig & { _retried?: boolean };
+
+// Reads the exp claim without verifying the signature; the server does that
+const tokenExpiresAt = (jwt: string): number | null => {
+  try {
+    const payload = jwt.split(".")[1].replace(/-/g, "+").replace(/_/g, "/");
+    const { exp } = JSON.parse(atob(payload));
+    return typeof exp === "number" ? exp * 1000 : null;
+  } catch {
+    return null;
+  }
+};
+
+const isAuthEndpoint = (url?: string) =>
+  !!url && url.startsWith(`${API_BASE_URL}/auth/`);
+
 export const useAuth = () => {
   const context = useContext(AuthContext);
   if (context === undefined) {
@@ -53,14 +76,116 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   const [user, setUser] = useState<User | null>(null);
   const [token, setToken] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const tokenRef = useRef<string | null>(null);
+  const refreshing = useRef<Promise<string> | null>(null);
 
-  const API_BASE_URL = "http://localhost:8082/api";
+  const storeToken = useCallback((accessToken: string) => {
+    tokenRef.current = accessToken;
+    setToken(accessToken);
+    localStorage.setItem("token", accessToken);
+    axios.defaults.headers.common["Authorization"] = `Bearer ${accessToken}`;
+  }, []);
+
+  const clearSession = useCallback(() => {
+    tokenRef.current = null;
+    setUser(null);
+    setToken(null);
+    localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
+    localStorage.removeItem("user");
+    delete axios.defaults.headers.common["Authorization"];
+  }, []);
+
+  // Refresh tokens are single-use, so concurrent callers share one /auth/refresh call
+  const refreshAccessToken = useCallback((): Promise<string> => {
+    if (!refreshing.current) {
+      refreshing.current = (async () => {
+        const refreshToken = localStorage.getItem("refreshToken");
+        if (!refreshToken) {
+          throw new Error("No refresh token");
+        }
+        const response = await axios.post(`${API_BASE_URL}/auth/refresh`, {
+          refreshToken,
+        });
+        localStorage.setItem("refreshToken", response.data.refreshToken);
+        storeToken(response.data.accessToken);
+        return response.data.accessToken as string;
+      })()
+        .catch((error) => {
+          // A rejected refresh token ends the session; a network error leaves it for the next attempt
+          if (!axios.isAxiosError(error) || error.response?.status === 401) {
+            clearSession();
+          }
+          throw error;
+        })
+        .finally(() => {
+          refreshing.current = null;
+        });
+    }
+    return refreshing.current;
+  }, [storeToken, clearSession]);
+
+  useEffect(() => {
+    // Pages pass the token they rendered with, so the current one is put on every API request,
+    // renewing it first when it is about to expire
+    const requestInterceptor = axios.interceptors.request.use(async (config) => {
+      if (!config.url?.startsWith(API_BASE_URL) || isAuthEndpoint(config.url)) {
+        return config;
+      }
+      const current = tokenRef.current;
+      if (!current) {
+        return config;
+      }
+      const expiresAt = tokenExpiresAt(current);
+      let accessToken = current;
+      if (expiresAt !== null && expiresAt - Date.now() < REFRESH_MARGIN_MS) {
+        try {
+          accessToken = await refreshAccessToken();
+        } catch {
+          return config;
+        }
+      }
+      config.headers.Authorization = `Bearer ${accessToken}`;
+      return config;
+    });
+
+    // A 401 means the access token expired or was revoked early; renew it once and retry
+    const responseInterceptor = axios.interceptors.response.use(
+      (response) => response,
+      async (error: AxiosError) => {
+        const request = error.config as RetriableRequest | undefined;
+        if (
+          error.response?.status !== 401 ||
+          !request ||
+          request._retried ||
+          isAuthEndpoint(request.url) ||
+          !localStorage.getItem("refreshToken")
+        ) {
+          return Promise.reject(error);
+        }
+        request._retried = true;
+        try {
+          const accessToken = await refreshAccessToken();
+          request.headers.Authorization = `Bearer ${accessToken}`;
+        } catch {
+          return Promise.reject(error);
+        }
+        return axios(request);
+      }
+    );
+
+    return () => {
+      axios.interceptors.request.eject(requestInterceptor);
+      axios.interceptors.response.eject(responseInterceptor);
+    };
+  }, [refreshAccessToken]);
 
   useEffect(() => {
     const storedToken = localStorage.getItem("token");
     const storedUser = localStorage.getItem("user");
 
     if (storedToken && storedUser) {
+      tokenRef.current = storedToken;
       setToken(storedToken);
       setUser(JSON.parse(storedUser));
       axios.defaults.headers.common["Authorization"] = `Bearer ${storedToken}`;
@@ -75,7 +200,7 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
         password,
       });
 
-      const { accessToken, id, email, firstName, lastName, role } =
+      const { accessToken, refreshToken, id, email, firstName, lastName, role } =
         response.data;
       const userData: User = {
         id,
@@ -86,13 +211,10 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
         role,
       };
 
-      setToken(accessToken);
       setUser(userData);
-
-      localStorage.setItem("token", accessToken);
       localStorage.setItem("user", JSON.stringify(userData));
-
-      axios.defaults.headers.common["Authorization"] = `Bearer ${accessToken}`;
+      localStorage.setItem("refreshToken", refreshToken);
+      storeToken(accessToken);
     } catch (error) {
       throw error;
     }
@@ -106,12 +228,20 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     }
   };
 
+  // Revokes the access token and the refresh token server-side; the local session ends either way
   const logout = () => {
-    setUser(null);
-    setToken(null);
-    localStorage.removeItem("token");
-    localStorage.removeItem("user");
-    delete axios.defaults.headers.common["Authorization"];
+    const accessToken = tokenRef.current;
+    const refreshToken = localStorage.getItem("refreshToken");
+    clearSession();
+    axios
+      .post(
+        `${API_BASE_URL}/auth/logout`,
+        { refreshToken },
+        accessToken
+          ? { headers: { Authorization: `Bearer ${accessToken}` } }
+          : undefined
+      )
+      .catch(() => {});
   };
 
   const updateUser = (userData: User) => {
@@ -50,6 +50,7 @@ import {
 import { useAuth } from "../contexts/AuthContext";
 import { useNavigate } from "react-router-dom";
 import axios from "axios";
+import { fetchAllPages } from "../utils/fetchAllPages";
 
 interface User {
   id: number;
@@ -162,14 +163,14 @@ const Administration: React.FC = () => {
         axios.get("http://localhost:8082/api/users", {
           headers: { Authorization: `Bearer ${token}` },
         }),
-        axios.get("http://localhost:8082/api/duties/assignments", {
+        fetchAllPages<DutyAssignment>("http://localhost:8082/api/duties/assignments", {
           headers: { Authorization: `Bearer ${token}` },
         }),
       ]);
 
       setDuties(dutiesRes.data);
       setUsers(usersRes.data);
-      setAssignments(assignmentsRes.data);
+      setAssignments(assignmentsRes);
 
       // Also fetch documents
       fetchDocuments();
@@ -10,6 +10,7 @@ import {
 } from "@mui/material";
 import axios from "axios";
 import { useAuth } from "../contexts/AuthContext";
+import { fetchAllPages } from "../utils/fetchAllPages";
 
 interface Duty {
   id: number;
@@ -63,11 +64,11 @@ const Duties: React.FC = () => {
 
   const fetchAssignments = async () => {
     try {
-      const response = await axios.get(
+      const assignments = await fetchAllPages<DutyAssignment>(
         "http://localhost:8082/api/duties/assignments",
         getAuthHeaders()
       );
-      setAssignments(response.data);
+      setAssignments(assignments);
     } catch (error) {
       console.error("Error fetching assignments:", error);
     }
@@ -18,6 +18,7 @@ import { LocalizationProvider } from "@mui/x-date-pickers/LocalizationProvider";
 import { AdapterDayjs } from "@mui/x-date-pickers/AdapterDayjs";
 import dayjs, { Dayjs } from "dayjs";
 import axios from "axios";
+import { fetchAllPages } from "../utils/fetchAllPages";
 
 interface Reservation {
   id: number;
@@ -45,10 +46,10 @@ const Reservations: React.FC = () => {
 
   const fetchReservations = async () => {
     try {
-      const response = await axios.get(
+      const reservations = await fetchAllPages<Reservation>(
         "http://localhost:8082/api/reservations"
       );
-      setReservations(response.data);
+      setReservations(reservations);
     } catch (error) {
       console.error("Error fetching reservations:", error);
     }
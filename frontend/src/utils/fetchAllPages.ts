@@ -0,0 +1,19 @@
+import axios, { AxiosRequestConfig } from "axios";
+
+// Follows the X-Next-Cursor header of a keyset-paged list endpoint until the last page
+export const fetchAllPages = async <T>(
+  url: string,
+  config: AxiosRequestConfig = {}
+): Promise<T[]> => {
+  const items: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const response = await axios.get<T[]>(url, {
+      ...config,
+      params: { ...config.params, cursor, limit: 500 },
+    });
+    items.push(...response.data);
+    cursor = response.headers["x-next-cursor"];
+  } while (cursor);
+  return items;
+};